@@ -0,0 +1,304 @@
+package hex.model;
+
+import java.util.BitSet;
+
+/**
+ * This class stores the tokens of each player as bitsets, one run of {@code long} words per row with bit {@code c}
+ * standing for column {@code c}, and decides connections by a word-parallel flood fill.
+ * The fill spreads along each row through whole runs of tokens at once with carry propagation, and between rows
+ * by shifting the rows according to the hex adjacency: a cell touches the cells {@code c} and {@code c + 1}
+ * of the row above and the cells {@code c - 1} and {@code c} of the row below.
+ * The bitboard keeps no state besides the tokens, so changes of cells don't need any bookkeeping.
+ *
+ * @author unxgx
+ */
+final class BitBoard implements CellStorage, Connectivity {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    private final int sideLength;
+    private final int wordsPerRow;
+    private final long lastWordMask;
+    private final long[] tokensOfX;
+    private final long[] tokensOfO;
+    private final long[] seeds;
+    private final long[] filled;
+
+    /**
+     * Instantiates a new bitboard with empty cells.
+     *
+     * @param sideLength the side length of the board
+     */
+    BitBoard(int sideLength) {
+        this.sideLength = sideLength;
+        this.wordsPerRow = (sideLength + WORD_MASK) >>> WORD_SHIFT;
+        int usedBits = sideLength & WORD_MASK;
+        this.lastWordMask = usedBits == 0 ? -1L : (1L << usedBits) - 1;
+        this.tokensOfX = new long[sideLength * wordsPerRow];
+        this.tokensOfO = new long[sideLength * wordsPerRow];
+        this.seeds = new long[wordsPerRow];
+        this.filled = new long[wordsPerRow];
+    }
+
+    private BitBoard(BitBoard bitBoard) {
+        this.sideLength = bitBoard.sideLength;
+        this.wordsPerRow = bitBoard.wordsPerRow;
+        this.lastWordMask = bitBoard.lastWordMask;
+        this.tokensOfX = bitBoard.tokensOfX.clone();
+        this.tokensOfO = bitBoard.tokensOfO.clone();
+        this.seeds = new long[wordsPerRow];
+        this.filled = new long[wordsPerRow];
+    }
+
+    @Override
+    public int get(int index) {
+        int word = wordOf(index);
+        long bit = 1L << ((index % sideLength) & WORD_MASK);
+        if ((tokensOfX[word] & bit) != 0) {
+            return Entry.X.ordinal();
+        }
+        if ((tokensOfO[word] & bit) != 0) {
+            return Entry.O.ordinal();
+        }
+        return Entry.EMPTY.ordinal();
+    }
+
+    @Override
+    public void set(int index, int code) {
+        int word = wordOf(index);
+        long bit = 1L << ((index % sideLength) & WORD_MASK);
+        tokensOfX[word] &= ~bit;
+        tokensOfO[word] &= ~bit;
+        if (code == Entry.X.ordinal()) {
+            tokensOfX[word] |= bit;
+        } else if (code == Entry.O.ordinal()) {
+            tokensOfO[word] |= bit;
+        }
+    }
+
+    @Override
+    public int size() {
+        return sideLength * sideLength;
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    @Override
+    public void changed(int index, int previous, int code) {
+        // the flood fill works on the tokens alone, there is nothing to update
+    }
+
+    @Override
+    public boolean connects(Entry token) {
+        long[] reach = new long[tokensOfX.length];
+        return flood(token, true, reach, true);
+    }
+
+    @Override
+    public void findWinningCells(BitSet winningCellsOfX, BitSet winningCellsOfO) {
+        collect(getWinningCells(Entry.X), winningCellsOfX);
+        collect(getWinningCells(Entry.O), winningCellsOfO);
+    }
+
+    @Override
+    public Connectivity copy(CellStorage cells) {
+        // the copied cells are a bitboard themselves and decide their connections on their own
+        return (BitBoard) cells;
+    }
+
+    /**
+     * Gets all empty cells which, when filled with the token, would connect both of the player's poles.
+     * These are the empty cells touching the region reachable from the first pole as well as the region reachable
+     * from the second pole, where lying on a pole counts as touching it. Once the poles are connected,
+     * both regions and both poles are one and every empty cell touching them counts.
+     *
+     * @param token the token (X or O) of the player
+     * @return the winning cells as bitsets per row
+     */
+    long[] getWinningCells(Entry token) {
+        long[] fromFirstPole = new long[tokensOfX.length];
+        long[] fromSecondPole = new long[tokensOfX.length];
+        boolean connected = flood(token, true, fromFirstPole, false);
+        flood(token, false, fromSecondPole, false);
+        long[] winning = new long[tokensOfX.length];
+        for (int row = 0; row < sideLength; row++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                int word = row * wordsPerRow + w;
+                long empty = ~(tokensOfX[word] | tokensOfO[word]) & validBits(w);
+                long touchesFirst = dilate(fromFirstPole, row, w) | poleBits(token, true, row, w);
+                long touchesSecond = dilate(fromSecondPole, row, w) | poleBits(token, false, row, w);
+                if (connected) {
+                    touchesFirst |= touchesSecond;
+                    touchesSecond = touchesFirst;
+                }
+                winning[word] = empty & touchesFirst & touchesSecond;
+            }
+        }
+        return winning;
+    }
+
+    /**
+     * Translates bitsets per row into cell indices.
+     */
+    private void collect(long[] bits, BitSet indices) {
+        for (int row = 0; row < sideLength; row++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                long word = bits[row * wordsPerRow + w];
+                while (word != 0) {
+                    indices.set(row * sideLength + (w << WORD_SHIFT) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the region of the player's tokens reachable from one of the player's poles.
+     *
+     * @param token       the token (X or O) of the player
+     * @param firstPole   whether to start at the first or at the second pole
+     * @param reach       receives the reachable tokens, must be empty
+     * @param stopAtOther whether to stop as soon as the other pole is reached
+     * @return true if the region reaches the other pole, otherwise false
+     */
+    private boolean flood(Entry token, boolean firstPole, long[] reach, boolean stopAtOther) {
+        long[] owned = token == Entry.X ? tokensOfX : tokensOfO;
+        boolean changed = true;
+        boolean forward = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < sideLength; i++) {
+                int row = forward ? i : sideLength - 1 - i;
+                int offset = row * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    long incoming = reach[offset + w] | poleBits(token, firstPole, row, w);
+                    if (row > 0) {
+                        incoming |= reach[offset - wordsPerRow + w] | shiftDown(reach, offset - wordsPerRow, w);
+                    }
+                    if (row < sideLength - 1) {
+                        incoming |= reach[offset + wordsPerRow + w] | shiftUp(reach, offset + wordsPerRow, w);
+                    }
+                    seeds[w] = incoming & owned[offset + w];
+                }
+                changed |= fillRow(owned, offset, reach);
+            }
+            if (stopAtOther && touchesPole(token, !firstPole, reach)) {
+                return true;
+            }
+            forward = !forward;
+        }
+        return touchesPole(token, !firstPole, reach);
+    }
+
+    /**
+     * Spreads seeds through the runs of tokens of a row, in both directions and across word boundaries.
+     *
+     * @return true if the reach of the row has grown
+     */
+    private boolean fillRow(long[] owned, int offset, long[] reach) {
+        boolean changed = false;
+        // towards higher columns: adding the seeds to the tokens carries through each run above a seed
+        long carry = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long tokens = owned[offset + w];
+            long sum = tokens + seeds[w];
+            long carryOut = Long.compareUnsigned(sum, tokens) < 0 ? 1 : 0;
+            sum += carry;
+            carryOut |= carry == 1 && sum == 0 ? 1 : 0;
+            filled[w] = (tokens & (sum ^ tokens ^ seeds[w])) | seeds[w];
+            carry = carryOut;
+        }
+        // towards lower columns: the same on bit reversed words, starting with the highest word
+        carry = 0;
+        for (int w = wordsPerRow - 1; w >= 0; w--) {
+            long tokens = Long.reverse(owned[offset + w]);
+            long reversedSeeds = Long.reverse(seeds[w]);
+            long sum = tokens + reversedSeeds;
+            long carryOut = Long.compareUnsigned(sum, tokens) < 0 ? 1 : 0;
+            sum += carry;
+            carryOut |= carry == 1 && sum == 0 ? 1 : 0;
+            filled[w] |= Long.reverse((tokens & (sum ^ tokens ^ reversedSeeds)) | reversedSeeds);
+            carry = carryOut;
+        }
+        for (int w = 0; w < wordsPerRow; w++) {
+            long grown = reach[offset + w] | filled[w];
+            if (grown != reach[offset + w]) {
+                reach[offset + w] = grown;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Gets the cells of a word adjacent to a region, including the region itself.
+     */
+    private long dilate(long[] region, int row, int w) {
+        int offset = row * wordsPerRow;
+        long dilated = region[offset + w] | shiftUp(region, offset, w) | shiftDown(region, offset, w);
+        if (row > 0) {
+            dilated |= region[offset - wordsPerRow + w] | shiftDown(region, offset - wordsPerRow, w);
+        }
+        if (row < sideLength - 1) {
+            dilated |= region[offset + wordsPerRow + w] | shiftUp(region, offset + wordsPerRow, w);
+        }
+        return dilated & validBits(w);
+    }
+
+    private boolean touchesPole(Entry token, boolean firstPole, long[] reach) {
+        for (int row = 0; row < sideLength; row++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                if ((reach[row * wordsPerRow + w] & poleBits(token, firstPole, row, w)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the cells of a word lying on a pole: the first or last row for X, the first or last column for O.
+     */
+    private long poleBits(Entry token, boolean firstPole, int row, int w) {
+        if (token == Entry.X) {
+            return row == (firstPole ? 0 : sideLength - 1) ? validBits(w) : 0;
+        }
+        int column = firstPole ? 0 : sideLength - 1;
+        return w == column >>> WORD_SHIFT ? 1L << (column & WORD_MASK) : 0;
+    }
+
+    /**
+     * Moves the bits of a row one column up, so that column {@code c} holds the former column {@code c - 1}.
+     */
+    private long shiftUp(long[] bits, int offset, int w) {
+        long shifted = bits[offset + w] << 1;
+        if (w > 0) {
+            shifted |= bits[offset + w - 1] >>> WORD_MASK;
+        }
+        return shifted;
+    }
+
+    /**
+     * Moves the bits of a row one column down, so that column {@code c} holds the former column {@code c + 1}.
+     */
+    private long shiftDown(long[] bits, int offset, int w) {
+        long shifted = bits[offset + w] >>> 1;
+        if (w < wordsPerRow - 1) {
+            shifted |= bits[offset + w + 1] << WORD_MASK;
+        }
+        return shifted;
+    }
+
+    private long validBits(int w) {
+        return w == wordsPerRow - 1 ? lastWordMask : -1L;
+    }
+
+    private int wordOf(int index) {
+        return (index / sideLength) * wordsPerRow + ((index % sideLength) >>> WORD_SHIFT);
+    }
+
+}
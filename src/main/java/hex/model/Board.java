@@ -1,32 +1,71 @@
 package hex.model;
 
-import java.util.List;
-import java.util.Set;
-import java.util.HashSet;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This class represents the game board for the game of Hex. It manages the state of the
  * hexagonal cells and provides algorithms for checking winning conditions in the game.
+ * The cells are kept in a primitive {@link CellStorage}, their coordinates are computed arithmetically from their index,
+ * and whether a player has connected their poles is decided by a {@link Connectivity}. Both are chosen by the
+ * {@link BoardBackend} of the board.
  *
  * @author unxgx
  * @author Programmieren-Team
  */
-public class Board {
+public class Board implements BoardView {
 
     private static final String LINE_SEPERATOR = System.lineSeparator();
+    private static final String ERROR_WINNING_ENTRY = "The WINNING token only marks a winning path and can't be set.";
+    private static final Entry[] ENTRIES = Entry.values();
+    private static final int NO_INDEX = -1;
     private final int sideLength;
-    private Hexagon[] entries;
-    private Set<Hexagon> winningPath;
+    private final BoardBackend backend;
+    private final NeighbourTable neighbours;
+    private final CellStorage cells;
+    private final Connectivity connectivity;
+    private final int[] tokenCounts;
+    private int[] winningPath;
+    // the cells of the winning path in ascending order while they are marked with the WINNING token, otherwise null
+    private int[] markedCells;
+    // the Zobrist hash of the tokens, and the one of the tokens rotated by 180 degrees
+    private long hash;
+    private long rotatedHash;
+    // the threats found since the last change of a cell, otherwise null
+    private Threats threats;
 
     /**
-     * Instantiates a new board.
+     * Instantiates a new board using the {@link BoardBackend#PACKED} backend.
      *
      * @param sideLength sideLength The side length of the game board.
      */
     public Board(int sideLength) {
+        this(sideLength, BoardBackend.PACKED);
+    }
+
+    /**
+     * Instantiates a new board.
+     *
+     * @param sideLength The side length of the game board.
+     * @param backend    The way the board stores its cells and decides connections.
+     */
+    public Board(int sideLength, BoardBackend backend) {
         this.sideLength = sideLength;
-        this.entries = new Hexagon[sideLength * sideLength];
+        this.backend = backend;
+        this.neighbours = NeighbourTable.of(sideLength);
+        if (backend == BoardBackend.BITBOARD) {
+            BitBoard bitBoard = new BitBoard(sideLength);
+            this.cells = bitBoard;
+            this.connectivity = bitBoard;
+        } else {
+            int cellCount = sideLength * sideLength;
+            this.cells = backend == BoardBackend.SPARSE ? new SparseCells(cellCount) : new PackedCells(cellCount);
+            this.connectivity = new UnionFindConnectivity(cells, neighbours);
+        }
+        this.tokenCounts = new int[ENTRIES.length];
+        this.tokenCounts[Entry.EMPTY.ordinal()] = sideLength * sideLength;
     }
 
     /**
@@ -35,31 +74,29 @@ public class Board {
      * @param board The existing board to copy.
      */
     private Board(Board board) {
-        this(board.sideLength);
-        System.arraycopy(board.entries, 0, entries, 0, sideLength * sideLength);
+        this.sideLength = board.sideLength;
+        this.backend = board.backend;
+        this.neighbours = board.neighbours;
+        this.cells = board.cells.copy();
+        this.connectivity = board.connectivity.copy(cells);
+        this.tokenCounts = board.tokenCounts.clone();
         this.winningPath = board.winningPath;
+        this.markedCells = board.markedCells;
+        this.threats = board.threats;
+        this.hash = board.hash;
+        this.rotatedHash = board.rotatedHash;
     }
 
-    /**
-     * Gets the index of an empty cell that, when filled with the specified token, would result in a win.
-     *
-     * @param token The token (X or O) to check for a winning move.
-     * @return The index of the winning move, or -1 if no winning move is found.
-     */
-    public int getWinningIndex(Entry token) {
-        for (int i = 0; i < entries.length; i++) {
-            if (this.entries[i] != null) {
-                continue;
-            }
-            set(i % sideLength, i / sideLength, token);
-            boolean hasWon = hasWon(token);
-            entries[i] = null;
-
-            if (hasWon) {
-                return i;
-            }
+    @Override
+    public Threats getThreats() {
+        if (threats == null) {
+            // the sets grow with the threats, a large board usually has only a few
+            BitSet winningCellsOfX = new BitSet();
+            BitSet winningCellsOfO = new BitSet();
+            connectivity.findWinningCells(winningCellsOfX, winningCellsOfO);
+            threats = new Threats(winningCellsOfX, winningCellsOfO);
         }
-        return -1;
+        return threats;
     }
 
     /**
@@ -78,48 +115,44 @@ public class Board {
         return false;
     }
 
-    /**
-     * Checks if a hexagon at the specified coordinates is empty.
-     *
-     * @param col The x-coordinate of the hexagon.
-     * @param row The y-coordinate of the hexagon.
-     * @return True if the cell is empty, otherwise false.
-     */
+    @Override
     public boolean isEmpty(int col, int row) {
-        return entries[(row * sideLength) + col] == null;
+        return getEntry(col, row) == Entry.EMPTY;
     }
 
-    /**
-     * Checks if a cell at the specified coordinates is occupied by a specific token.
-     *
-     * @param col   The x-coordinate of the hexagon.
-     * @param row   The y-coordinate of the hexagon.
-     * @param entry The token (X or O) to check for.
-     * @return True if the hexagon cell is occupied by the specified token, otherwise false.
-     */
+    @Override
     public boolean isOccupiedBy(int col, int row, Entry entry) {
         if (isEmpty(col, row)) {
             return false;
         } else {
-            return entries[(row * sideLength) + col].getToken() == entry;
+            return getEntry(col, row) == entry;
         }
     }
 
-    /**
-     * Checks if the game board contains any hexagons with the specified token.
-     *
-     * @param entry The token (X or O) to check for.
-     * @return True if the board contains hexagon cells with the specified token, otherwise false.
-     */
+    @Override
+    public Entry getEntry(int col, int row) {
+        return getEntry((row * sideLength) + col);
+    }
+
+    @Override
+    public Entry getEntry(int index) {
+        if (markedCells != null && Arrays.binarySearch(markedCells, index) >= 0) {
+            return Entry.WINNING;
+        }
+        return ENTRIES[cells.get(index)];
+    }
+
+    @Override
+    public int getCellCount() {
+        return cells.size();
+    }
+
+    @Override
     public boolean containsAny(Entry entry) {
-        for (Hexagon hexagon : entries) {
-            if (hexagon == null) {
-                continue;
-            } else if (hexagon.getToken() == entry) {
-                return true;
-            }
+        if (entry == Entry.WINNING) {
+            return markedCells != null;
         }
-        return false;
+        return tokenCounts[entry.ordinal()] > 0;
     }
 
     /**
@@ -127,23 +160,40 @@ public class Board {
      *
      * @param xCoordinate The x-coordinate of the cell.
      * @param yCoordinate The y-coordinate of the cell.
-     * @param entry       The token (X or O) to set in the cell.
+     * @param entry       The token (X or O) to set in the cell, or EMPTY to clear it.
+     * @throws IllegalArgumentException if the entry is WINNING, which only marks a winning path found by the board
      */
     public void set(int xCoordinate, int yCoordinate, Entry entry) {
-        entries[yCoordinate * sideLength + xCoordinate] = new Hexagon(xCoordinate, yCoordinate, this.sideLength, entry);
+        if (entry == Entry.WINNING) {
+            throw new IllegalArgumentException(ERROR_WINNING_ENTRY);
+        }
+        int index = yCoordinate * sideLength + xCoordinate;
+        int previous = cells.get(index);
+        if (previous == entry.ordinal()) {
+            return;
+        }
+        tokenCounts[previous]--;
+        tokenCounts[entry.ordinal()]++;
+        cells.set(index, entry.ordinal());
+        // rotating by 180 degrees maps the cell (x, y) to (L - 1 - x, L - 1 - y), which keeps the poles of each player
+        int rotatedIndex = cells.size() - 1 - index;
+        hash ^= Zobrist.key(sideLength, index, previous) ^ Zobrist.key(sideLength, index, entry.ordinal());
+        rotatedHash ^= Zobrist.key(sideLength, rotatedIndex, previous)
+                ^ Zobrist.key(sideLength, rotatedIndex, entry.ordinal());
+        connectivity.changed(index, previous, entry.ordinal());
+        threats = null;
     }
 
     /**
-     * Sets the hexagons in the specified set to the special WINNING token.
+     * Marks the hexagons in the specified path with the special WINNING token.
+     * The marks are kept apart from the cells, so the tokens and their connections stay untouched.
      *
-     * @param checkedHexagons The set of hexagons representing the winning path.
+     * @param path The indices of the hexagons representing the winning path.
      */
-    private void setWinning(Set<Hexagon> checkedHexagons) {
-        for (Hexagon hexagon : checkedHexagons) {
-            int xCoordinate = hexagon.getX();
-            int yCoordinate = hexagon.getY();
-            set(xCoordinate, yCoordinate, Entry.WINNING);
-        }
+    private void setWinning(int[] path) {
+        int[] sortedPath = path.clone();
+        Arrays.sort(sortedPath);
+        this.markedCells = sortedPath;
     }
 
     /**
@@ -152,24 +202,42 @@ public class Board {
      * @param entry The token (X or O) to set for the cells in the winning path.
      */
     public void setWinningPathToBack(Entry entry) {
-        for (Hexagon hexagon : this.winningPath) {
-            int xCoordinate = hexagon.getX();
-            int yCoordinate = hexagon.getY();
-            set(xCoordinate, yCoordinate, entry);
+        if (this.winningPath == null) {
+            return;
+        }
+        this.markedCells = null;
+        for (int index : this.winningPath) {
+            set(index % sideLength, index / sideLength, entry);
         }
     }
 
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public long getCanonicalKey() {
+        return Math.min(this.hash, this.rotatedHash);
+    }
+
+    @Override
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
     /**
-     * Gets the side length of the game board.
+     * Gets the backend the board uses to store its cells and decide connections.
      *
-     * @return The side length of the game board.
+     * @return The backend of the board.
      */
-    public int getSideLength() {
-        return this.sideLength;
+    public BoardBackend getBackend() {
+        return this.backend;
     }
 
     /**
-     * Creates a copy of the game board with the same state.
+     * Creates a copy of the game board with the same state. With the {@link BoardBackend#PACKED} backend
+     * the copy is made in constant time, both boards share their storage and only copy the pages they change afterwards.
      *
      * @return A new Board object representing a copy of the current game board.
      */
@@ -179,119 +247,98 @@ public class Board {
 
     /**
      * Checks for a winning path from the north pole to the south pole for the 'X' player.
+     * If a winning path exists, its hexagons are marked with the WINNING token.
      *
      * @return True if a winning path exists, otherwise false.
      */
     public boolean nordToSouthAlgorithm() {
-        List<Hexagon> hexagonsWithXToken = Arrays.stream(entries)
-                .filter(hexagon -> hexagon != null && hexagon.getToken() == Entry.X)
-                .toList();
-
-        List<Hexagon> northPolHexagons = hexagonsWithXToken.stream()
-                .filter(hexagon -> hexagon.isNorthPol())
-                .toList();
-
-        List<Hexagon> southPolHexagons = hexagonsWithXToken.stream()
-                .filter(hexagon -> hexagon.isSouthPol())
-                .toList();
-
-        if (southPolHexagons.isEmpty() || northPolHexagons.isEmpty()) {
-            return false;
-        }
-
-        return northPolHexagons.stream()
-                .anyMatch(hexagon -> isThereConnection(hexagon, hexagonsWithXToken, new HashSet<>()));
+        return markWinningPath(Entry.X);
     }
 
     /**
      * Checks for a winning path from the west pole to the east pole for the 'O' player.
+     * If a winning path exists, its hexagons are marked with the WINNING token.
      *
      * @return True if a winning path exists, otherwise false.
      */
     public boolean westToEastAlgorithm() {
-        List<Hexagon> hexagonsWithOToken = Arrays.stream(entries)
-                .filter(hexagon -> hexagon != null && hexagon.getToken() == Entry.O)
-                .toList();
-
-        List<Hexagon> westPolHexagons = hexagonsWithOToken.stream()
-                .filter(hexagon -> hexagon.isWestPol())
-                .toList();
-
-        List<Hexagon> eastPolHexagons = hexagonsWithOToken.stream()
-                .filter(hexagon -> hexagon.isEastPol())
-                .toList();
+        return markWinningPath(Entry.O);
+    }
 
-        if (westPolHexagons.isEmpty() || eastPolHexagons.isEmpty()) {
+    private boolean markWinningPath(Entry token) {
+        if (!connectivity.connects(token)) {
             return false;
         }
-
-        return westPolHexagons.stream()
-                .anyMatch(hexagon -> isThereConnection(hexagon, hexagonsWithOToken, new HashSet<>()));
+        int[] path = findConnection(token);
+        this.winningPath = path;
+        setWinning(path);
+        return true;
     }
 
     /**
-     * Recursive helper method to check for a connection of tokens on the game board.
+     * Searches the shortest chain of tokens connecting the two poles of the specified token.
+     * X connects the north pole with the south pole, O connects the west pole with the east pole.
+     * This search is only needed to mark the winning path once a win has been detected. It only visits the tokens
+     * joined to the starting pole, which form the winning group, and takes memory in the number of tokens of the
+     * player rather than in the size of the board.
      *
-     * @param hexagon           The current hexagon being checked for a connection.
-     * @param hexagonsWithToken The list of hexagons containing the same token being checked.
-     * @param checkedHexagons   A set to keep track of visited hexagons during the recursive search.
-     * @return True if a connection of tokens is found, otherwise false.
+     * @param token The token (X or O) to search a connection for.
+     * @return The indices of the hexagons of the chain, or null if the poles aren't connected.
      */
-    private boolean isThereConnection(Hexagon hexagon, List<Hexagon> hexagonsWithToken, Set<Hexagon> checkedHexagons) {
-
-        checkedHexagons.add(hexagon);
-
-        Entry tokenToCheck = hexagon.getToken();
-        // end of recursion for X token
-        if (tokenToCheck == Entry.X) {
-            if (hexagon.isSouthPol()) {
-                // adds the neihbours of the polar hexagon to the list of checked hexagons
-                for (Hexagon neighbour : hexagon.getNeighbours()) {
-                    if (hexagonsWithToken.contains(neighbour)) {
-                        checkedHexagons.add(neighbour);
-                    }
-                }
-                this.winningPath = checkedHexagons;
-                setWinning(checkedHexagons);
-                return true;
-            }
-            // end of recursion for O token
-        } else if (tokenToCheck == Entry.O) {
-            if (hexagon.isEastPol()) {
-                // adds the neihbours of the polar hexagon to the list of checked hexagons
-                for (Hexagon neighbour : hexagon.getNeighbours()) {
-                    if (hexagonsWithToken.contains(neighbour)) {
-                        checkedHexagons.add(neighbour);
-                    }
-                }
-                this.winningPath = checkedHexagons;
-                setWinning(checkedHexagons);
-                return true;
+    private int[] findConnection(Entry token) {
+        int tokenCount = tokenCounts[token.ordinal()];
+        // the cell each visited token was reached from, every token is queued at most once
+        Map<Integer, Integer> previous = new HashMap<>(2 * tokenCount);
+        int[] queue = new int[tokenCount];
+        int head = 0;
+        int tail = 0;
+        // breadth-first search starting from every token on the starting pole
+        for (int i = 0; i < sideLength; i++) {
+            int index = poleIndex(token, 0, i);
+            if (cells.get(index) == token.ordinal()) {
+                previous.put(index, NO_INDEX);
+                queue[tail++] = index;
             }
         }
-
-        for (Hexagon neighbour : hexagon.getNeighbours()) {
-            if (!checkedHexagons.contains(neighbour) && hexagonsWithToken.contains(neighbour)) {
-                // it takes the hexagon object, that is placed on the board
-                // taking neighbour wouldn't work, because it is initialized with a different constructor and doesn't know its neighbours
-                Hexagon nextHexagon = hexagonsWithToken.stream()
-                        .filter(obj -> obj.equals(neighbour))
-                        .findFirst()
-                        .orElse(null);
-                return isThereConnection(nextHexagon, hexagonsWithToken, checkedHexagons);
+        while (head < tail) {
+            int current = queue[head++];
+            if (lineOf(current, token) == sideLength - 1) {
+                return tracePath(current, previous);
+            }
+            for (int i = 0; i < neighbours.degree(current); i++) {
+                int neighbour = neighbours.neighbour(current, i);
+                if (cells.get(neighbour) == token.ordinal() && !previous.containsKey(neighbour)) {
+                    previous.put(neighbour, current);
+                    queue[tail++] = neighbour;
+                }
             }
         }
-
-        return false;
+        return null;
     }
 
     /**
-     * Gets an array of hexagons representing the current state of the game board.
-     *
-     * @return An array of hexagons representing the game board's current state.
+     * Gets the line of a cell across the poles of a token, the row for X and the column for O.
      */
-    public Hexagon[] getEntries() {
-        return this.entries;
+    private int lineOf(int index, Entry token) {
+        return token == Entry.X ? index / sideLength : index % sideLength;
+    }
+
+    private int poleIndex(Entry token, int line, int position) {
+        // the poles of X are rows, the poles of O are columns
+        return token == Entry.X ? line * sideLength + position : position * sideLength + line;
+    }
+
+    private static int[] tracePath(int end, Map<Integer, Integer> previous) {
+        int length = 0;
+        for (int index = end; index != NO_INDEX; index = previous.get(index)) {
+            length++;
+        }
+        int[] path = new int[length];
+        int position = length;
+        for (int index = end; index != NO_INDEX; index = previous.get(index)) {
+            path[--position] = index;
+        }
+        return path;
     }
 
     @Override
@@ -304,13 +351,7 @@ public class Board {
             stringBuilder.append(space.repeat(row));
 
             for (int col = 0; col < sideLength; col++) {
-                Hexagon hexagon = entries[row * sideLength + col];
-                if (hexagon != null) {
-                    Entry token = hexagon.getToken();
-                    stringBuilder.append(token.getToken());
-                } else {
-                    stringBuilder.append(Entry.EMPTY.getToken());
-                }
+                stringBuilder.append(getEntry(row * sideLength + col).getToken());
 
                 if (col < sideLength - 1) {
                     stringBuilder.append(space);
@@ -324,4 +365,3 @@ public class Board {
     }
 
 }
-
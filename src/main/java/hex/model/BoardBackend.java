@@ -0,0 +1,29 @@
+package hex.model;
+
+/**
+ * Represents the ways a {@link Board} can store its cells and decide connections.
+ *
+ * @author unxgx
+ */
+public enum BoardBackend {
+
+    /**
+     * Stores the cells packed into pages which are shared copy-on-write between copies,
+     * and keeps track of connected groups incrementally with a union-find per player.
+     */
+    PACKED,
+
+    /**
+     * Stores the tokens of each player as bitsets per row and decides connections by a word-parallel flood fill.
+     * Fastest on the board sizes usually played, where a row fits into a few words.
+     */
+    BITBOARD,
+
+    /**
+     * Stores only the cells holding a token in a hash table, so a large board with few tokens takes little memory,
+     * and moves them to packed cells once they take up a noticeable share of the board.
+     * Keeps track of connected groups with a union-find per player like {@link #PACKED}.
+     */
+    SPARSE
+
+}
@@ -0,0 +1,107 @@
+package hex.model;
+
+/**
+ * This interface represents a read-only view of a hex game board. A view reflects the live state of the board
+ * without copying it, so it is the cheap way to inspect a board. Callers that need to change a board
+ * have to work on a copy obtained from {@link Board#copy()}.
+ * Cells can be iterated by their index {@code row * sideLength + col}, from 0 to {@code getCellCount() - 1}.
+ *
+ * @author unxgx
+ */
+public interface BoardView {
+
+    /**
+     * Gets the side length of the game board.
+     *
+     * @return The side length of the game board.
+     */
+    int getSideLength();
+
+    /**
+     * Gets the number of cells of the game board.
+     *
+     * @return The number of cells.
+     */
+    default int getCellCount() {
+        return getSideLength() * getSideLength();
+    }
+
+    /**
+     * Gets the entry of the cell at the specified coordinates.
+     *
+     * @param col The x-coordinate of the hexagon.
+     * @param row The y-coordinate of the hexagon.
+     * @return The entry of the cell, {@link Entry#EMPTY} if no token is placed on it.
+     */
+    Entry getEntry(int col, int row);
+
+    /**
+     * Gets the entry of the cell with the specified index.
+     *
+     * @param index The index of the cell.
+     * @return The entry of the cell, {@link Entry#EMPTY} if no token is placed on it.
+     */
+    default Entry getEntry(int index) {
+        return getEntry(index % getSideLength(), index / getSideLength());
+    }
+
+    /**
+     * Checks if a hexagon at the specified coordinates is empty.
+     *
+     * @param col The x-coordinate of the hexagon.
+     * @param row The y-coordinate of the hexagon.
+     * @return True if the cell is empty, otherwise false.
+     */
+    boolean isEmpty(int col, int row);
+
+    /**
+     * Checks if a cell at the specified coordinates is occupied by a specific token.
+     *
+     * @param col   The x-coordinate of the hexagon.
+     * @param row   The y-coordinate of the hexagon.
+     * @param entry The token (X or O) to check for.
+     * @return True if the hexagon cell is occupied by the specified token, otherwise false.
+     */
+    boolean isOccupiedBy(int col, int row, Entry entry);
+
+    /**
+     * Checks if the game board contains any hexagons with the specified token.
+     *
+     * @param entry The token (X or O) to check for.
+     * @return True if the board contains hexagon cells with the specified token, otherwise false.
+     */
+    boolean containsAny(Entry entry);
+
+    /**
+     * Gets the Zobrist hash of the tokens on the board. Winning path marks don't change the hash.
+     *
+     * @return The hash of the board.
+     */
+    long getHash();
+
+    /**
+     * Gets a key of the position on the board that is equal for a position and the same position rotated
+     * by 180 degrees, which is the symmetry of Hex that keeps the poles of both players.
+     *
+     * @return The canonical key of the position.
+     */
+    long getCanonicalKey();
+
+    /**
+     * Gets the threats of both players, every empty cell that, when filled with a token, would result in a win.
+     *
+     * @return The threats of the current state of the board.
+     */
+    Threats getThreats();
+
+    /**
+     * Gets the index of an empty cell that, when filled with the specified token, would result in a win.
+     *
+     * @param token The token (X or O) to check for a winning move.
+     * @return The index of the winning move, or -1 if no winning move is found.
+     */
+    default int getWinningIndex(Entry token) {
+        return getThreats().getFirst(token);
+    }
+
+}
@@ -0,0 +1,58 @@
+package hex.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * This interface represents the storage of the cells of a {@link Board}. A cell is addressed by its index
+ * {@code row * sideLength + col} and holds a code, which is the ordinal of {@link Entry#EMPTY}, {@link Entry#X}
+ * or {@link Entry#O}.
+ *
+ * @author unxgx
+ */
+interface CellStorage {
+
+    /**
+     * Gets the code stored in a cell.
+     *
+     * @param index the index of the cell
+     * @return the code of the cell, which is the ordinal of its entry
+     */
+    int get(int index);
+
+    /**
+     * Stores a code in a cell.
+     *
+     * @param index the index of the cell
+     * @param code  the code to store, which is the ordinal of an entry
+     */
+    void set(int index, int code);
+
+    /**
+     * Gets the number of cells.
+     *
+     * @return the number of cells
+     */
+    int size();
+
+    /**
+     * Passes the index of every cell holding a token to the action, in no particular order.
+     * Storages which know where their tokens are skip the empty cells without reading them.
+     *
+     * @param action the action to pass the indices to
+     */
+    default void forEachToken(IntConsumer action) {
+        for (int i = 0; i < size(); i++) {
+            if (get(i) != Entry.EMPTY.ordinal()) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of this storage.
+     *
+     * @return a copy of this storage
+     */
+    CellStorage copy();
+
+}
@@ -0,0 +1,48 @@
+package hex.model;
+
+import java.util.BitSet;
+
+/**
+ * This interface represents the way a {@link Board} decides whether the tokens of a player connect the two poles of
+ * that player. X connects the north pole with the south pole, O connects the west pole with the east pole.
+ * An implementation works on the {@link CellStorage} of its board and is told about every change of a cell.
+ *
+ * @author unxgx
+ */
+interface Connectivity {
+
+    /**
+     * Updates the connectivity after a cell has changed. The new code is already stored when this is called.
+     *
+     * @param index    the index of the changed cell
+     * @param previous the code the cell had before
+     * @param code     the code the cell has now
+     */
+    void changed(int index, int previous, int code);
+
+    /**
+     * Checks if the tokens of a player connect both of the player's poles.
+     *
+     * @param token the token (X or O) of the player
+     * @return true if the poles are connected, otherwise false
+     */
+    boolean connects(Entry token);
+
+    /**
+     * Finds every empty cell which, when filled with a token, would connect both poles of that token,
+     * for both players in a single pass.
+     *
+     * @param winningCellsOfX receives the indices of the winning cells of X, must be empty
+     * @param winningCellsOfO receives the indices of the winning cells of O, must be empty
+     */
+    void findWinningCells(BitSet winningCellsOfX, BitSet winningCellsOfO);
+
+    /**
+     * Creates a copy of this connectivity, working on the given copy of the cells.
+     *
+     * @param cells the copied cells of the board
+     * @return a copy of this connectivity
+     */
+    Connectivity copy(CellStorage cells);
+
+}
@@ -0,0 +1,319 @@
+package hex.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents an append-only archive of finished games, kept in two files next to each other.
+ * The data file holds the games one after another, each encoded by {@link GameCodec}.
+ * The index file starts with a short header and holds one entry of fixed size per game: the offset and the length
+ * of the game in the data file and the hash code of its name.
+ * Both files are read through memory mappings, so a game is fetched by its ordinal with a single lookup in the index
+ * and by its name with a scan of the index only, and the encoded games can be scanned without copying them.
+ * A game is written to the data file before its index entry, so after a crash the archive is cut back
+ * to the last game with a complete entry when it is opened again. An archive opened read-only is never changed,
+ * its games without a complete entry are just left out.
+ * Appending is synchronized, so the games of several sessions may be appended from their threads at once.
+ * Games may be read from several threads at once, as long as no game is appended meanwhile.
+ *
+ * @author unxgx
+ */
+public final class GameArchive implements Closeable {
+
+    private static final String DATA_FILE_EXTENSION = ".hxd";
+    private static final String INDEX_FILE_EXTENSION = ".hxi";
+    private static final byte[] INDEX_MAGIC = {'H', 'X', 'I'};
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    // the offset of the game, its length and the hash code of its name
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int LENGTH_OFFSET = Long.BYTES;
+    private static final int NAME_HASH_OFFSET = LENGTH_OFFSET + Integer.BYTES;
+    private static final String ERROR_READ_ONLY = "The archive was opened for reading only.";
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final MappedFile mappedData;
+    private final MappedFile mappedIndex;
+    private final ByteBuffer entry;
+    private final boolean readOnly;
+    private long dataEnd;
+    private int size;
+
+    private GameArchive(FileChannel data, FileChannel index, boolean readOnly) {
+        this.data = data;
+        this.index = index;
+        this.readOnly = readOnly;
+        this.mappedData = new MappedFile(data);
+        this.mappedIndex = new MappedFile(index);
+        this.entry = ByteBuffer.allocate(ENTRY_BYTES);
+    }
+
+    /**
+     * Opens the archive with the given base path, whose files are named by the base path followed by
+     * {@code .hxd} and {@code .hxi}. Missing files are created.
+     *
+     * @param basePath the path of the archive without the extensions of its files
+     * @return the opened archive
+     * @throws IOException              if the files can't be opened
+     * @throws InvalidGameDataException if the index file doesn't belong to an archive
+     */
+    public static GameArchive open(Path basePath) throws IOException, InvalidGameDataException {
+        return open(basePath, false, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens the existing archive with the given base path for reading only. Neither file is created or changed,
+     * so the archive may still be appended to by another process, whose last game may be left out.
+     *
+     * @param basePath the path of the archive without the extensions of its files
+     * @return the opened archive, to which no games can be appended
+     * @throws IOException              if the files are missing or can't be opened
+     * @throws InvalidGameDataException if the index file doesn't belong to an archive
+     */
+    public static GameArchive openReadOnly(Path basePath) throws IOException, InvalidGameDataException {
+        return open(basePath, true, StandardOpenOption.READ);
+    }
+
+    private static GameArchive open(Path basePath, boolean readOnly, StandardOpenOption... options)
+            throws IOException, InvalidGameDataException {
+        Path dataFile = basePath.resolveSibling(basePath.getFileName() + DATA_FILE_EXTENSION);
+        Path indexFile = basePath.resolveSibling(basePath.getFileName() + INDEX_FILE_EXTENSION);
+        FileChannel data = FileChannel.open(dataFile, options);
+        FileChannel index;
+        try {
+            index = FileChannel.open(indexFile, options);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        GameArchive archive = new GameArchive(data, index, readOnly);
+        try {
+            archive.recover();
+        } catch (IOException | InvalidGameDataException e) {
+            archive.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Appends the current state of a game to the archive.
+     *
+     * @param hex the game to append
+     * @throws IOException if the game can't be written
+     */
+    public void append(Hex hex) throws IOException {
+        append(GameRecord.of(hex));
+    }
+
+    /**
+     * Appends a game record to the archive.
+     *
+     * @param record the record to append
+     * @throws IOException if the game can't be written
+     */
+    public synchronized void append(GameRecord record) throws IOException {
+        // gives error if the archive was opened for reading only
+        if (readOnly) {
+            throw new IllegalStateException(ERROR_READ_ONLY);
+        }
+        byte[] encoded = GameCodec.encode(record);
+        writeFully(data, ByteBuffer.wrap(encoded), dataEnd);
+        entry.clear();
+        entry.putLong(dataEnd).putInt(encoded.length).putInt(record.getName().hashCode()).flip();
+        writeFully(index, entry, entryPosition(size));
+        dataEnd += encoded.length;
+        size++;
+    }
+
+    /**
+     * Gets the number of games in the archive.
+     *
+     * @return the number of games
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets a game of the archive.
+     *
+     * @param ordinal the ordinal of the game, starting at 0 for the first appended game
+     * @return the record of the game
+     * @throws IOException              if the game can't be read
+     * @throws InvalidGameDataException if the game was damaged
+     */
+    public GameRecord get(int ordinal) throws IOException, InvalidGameDataException {
+        ByteBuffer encoded = getEncoded(ordinal);
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        return GameCodec.decode(bytes);
+    }
+
+    /**
+     * Finds the game with the given name which was appended last. Only the index is scanned,
+     * and only the games whose name has the same hash code are decoded.
+     *
+     * @param name the name of the game
+     * @return the record of the game, or null if there is no game with this name
+     * @throws IOException              if the archive can't be read
+     * @throws InvalidGameDataException if a game was damaged
+     */
+    public GameRecord find(String name) throws IOException, InvalidGameDataException {
+        int nameHash = name.hashCode();
+        for (int ordinal = size - 1; ordinal >= 0; ordinal--) {
+            ByteBuffer indexEntry = mappedIndex.slice(entryPosition(ordinal), ENTRY_BYTES);
+            if (indexEntry.getInt(NAME_HASH_OFFSET) == nameHash) {
+                GameRecord record = get(ordinal);
+                if (record.getName().equals(name)) {
+                    return record;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a game of the archive in its encoded form, as a read-only view of the mapped data file
+     * that is valid as long as the archive is open.
+     *
+     * @param ordinal the ordinal of the game, starting at 0 for the first appended game
+     * @return the encoded game
+     * @throws IOException if the game can't be read
+     */
+    public ByteBuffer getEncoded(int ordinal) throws IOException {
+        // gives error if there is no game with this ordinal
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException(ordinal);
+        }
+        ByteBuffer indexEntry = mappedIndex.slice(entryPosition(ordinal), ENTRY_BYTES);
+        return mappedData.slice(indexEntry.getLong(0), indexEntry.getInt(LENGTH_OFFSET));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * Reads the header of the index, or writes it into a new index, and cuts both files back to the games
+     * with a complete index entry. An archive opened read-only is only read, an empty index counting as no games.
+     */
+    private void recover() throws IOException, InvalidGameDataException {
+        long indexSize = index.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (indexSize == 0 && readOnly) {
+            return;
+        } else if (indexSize == 0) {
+            header.put(INDEX_MAGIC).put((byte) VERSION).position(HEADER_BYTES).flip();
+            writeFully(index, header, 0);
+            indexSize = HEADER_BYTES;
+        } else {
+            // gives error if the index is no index of an archive or has an unknown version
+            if (indexSize < HEADER_BYTES) {
+                throw new InvalidGameDataException();
+            }
+            index.read(header, 0);
+            for (int i = 0; i < INDEX_MAGIC.length; i++) {
+                if (header.get(i) != INDEX_MAGIC[i]) {
+                    throw new InvalidGameDataException();
+                }
+            }
+            if (header.get(INDEX_MAGIC.length) != VERSION) {
+                throw new InvalidGameDataException();
+            }
+        }
+        long entries = (indexSize - HEADER_BYTES) / ENTRY_BYTES;
+        // gives error if the index holds more games than can be counted
+        if (entries > Integer.MAX_VALUE) {
+            throw new InvalidGameDataException();
+        }
+        long dataSize = data.size();
+        int complete = (int) entries;
+        long end = 0;
+        // the entries are read without mapping them, as the files may still be cut back
+        ByteBuffer indexEntry = ByteBuffer.allocate(ENTRY_BYTES);
+        while (complete > 0) {
+            indexEntry.clear();
+            index.read(indexEntry, entryPosition(complete - 1));
+            end = indexEntry.getLong(0) + indexEntry.getInt(LENGTH_OFFSET);
+            if (end <= dataSize) {
+                break;
+            }
+            complete--;
+            end = 0;
+        }
+        if (!readOnly) {
+            index.truncate(entryPosition(complete));
+            data.truncate(end);
+        }
+        this.size = complete;
+        this.dataEnd = end;
+    }
+
+    private static long entryPosition(int ordinal) {
+        return HEADER_BYTES + (long) ordinal * ENTRY_BYTES;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            next += channel.write(buffer, next);
+        }
+    }
+
+    /**
+     * A file mapped into memory in segments of fixed size, which are mapped when they are first read
+     * and mapped again once the file has grown past their end.
+     */
+    private static final class MappedFile {
+
+        private static final int SEGMENT_BITS = 30;
+        private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> segments;
+
+        MappedFile(FileChannel channel) {
+            this.channel = channel;
+            this.segments = new ArrayList<>();
+        }
+
+        /**
+         * Gets a read-only view of a region of the file.
+         */
+        synchronized ByteBuffer slice(long position, int length) throws IOException {
+            int segment = (int) (position >>> SEGMENT_BITS);
+            long segmentStart = (long) segment << SEGMENT_BITS;
+            int offset = (int) (position - segmentStart);
+            // a region reaching into the next segment is mapped on its own
+            if (offset + (long) length > SEGMENT_SIZE) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            while (segments.size() <= segment) {
+                segments.add(null);
+            }
+            MappedByteBuffer mapped = segments.get(segment);
+            if (mapped == null || mapped.capacity() < offset + length) {
+                long mappedSize = Math.min(SEGMENT_SIZE, channel.size() - segmentStart);
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, mappedSize);
+                segments.set(segment, mapped);
+            }
+            return mapped.slice(offset, length).asReadOnlyBuffer();
+        }
+
+    }
+
+}
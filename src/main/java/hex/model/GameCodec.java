@@ -0,0 +1,296 @@
+package hex.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * This class encodes game records into a compact binary format and decodes them again.
+ * A game starts with the magic bytes {@code HX} and a version byte, followed by the side length, the name of the game,
+ * the names of both players, a flag byte telling whether the tokens were swapped and who won, the number of moves
+ * and the index of the cell of every move. Numbers are written as unsigned varints of seven bits per byte, lowest first,
+ * so a move on a board up to 11 takes one byte and a move on the largest boards four bytes.
+ * Names are written as their length followed by their UTF-8 bytes.
+ * A CRC-32 checksum of all preceding bytes closes the game, so damaged data is detected when decoding.
+ *
+ * @author unxgx
+ */
+public final class GameCodec {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final byte[] MAGIC = {'H', 'X'};
+    private static final int VERSION = 1;
+    private static final int SWAPPED_FLAG = 1;
+    private static final int PLAYER_ONE_WON_FLAG = 1 << 1;
+    private static final int PLAYER_TWO_WON_FLAG = 1 << 2;
+    private static final int KNOWN_FLAGS = SWAPPED_FLAG | PLAYER_ONE_WON_FLAG | PLAYER_TWO_WON_FLAG;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = (1 << VARINT_PAYLOAD_BITS) - 1;
+    private static final int VARINT_CONTINUATION = 1 << VARINT_PAYLOAD_BITS;
+    /**
+     * The most bytes a varint takes.
+     */
+    static final int MAX_VARINT_BYTES = 5;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int SIDE_LENGTH_MIN = 5;
+    private static final int SIDE_LENGTH_MAX = 12345;
+    private static final int ODD_NUMBERS_MODULO = 2;
+
+    private GameCodec() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Encodes the current state of a game.
+     *
+     * @param hex the game to encode
+     * @return the encoded game
+     */
+    public static byte[] encode(Hex hex) {
+        return encode(GameRecord.of(hex));
+    }
+
+    /**
+     * Encodes a game together with the steps that were undone and can be redone:
+     * the number of these steps, followed by the game with them made again, preceded by its length.
+     *
+     * @param hex the game to encode
+     * @return the encoded game
+     */
+    static byte[] encodeWithRedoableSteps(Hex hex) {
+        byte[] line = encode(GameRecord.ofRedoableLine(hex));
+        byte[] data = new byte[2 * MAX_VARINT_BYTES + line.length];
+        int position = writeVarint(data, 0, hex.getRedoableSteps());
+        position = writeBytes(data, position, line);
+        return Arrays.copyOf(data, position);
+    }
+
+    /**
+     * Encodes a game record.
+     *
+     * @param record the record to encode
+     * @return the encoded game
+     */
+    public static byte[] encode(GameRecord record) {
+        byte[] name = record.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] playerOneName = record.getPlayerOneName().getBytes(StandardCharsets.UTF_8);
+        byte[] playerTwoName = record.getPlayerTwoName().getBytes(StandardCharsets.UTF_8);
+        // the header and the names take a few bytes, every move at most five
+        int capacity = MAGIC.length + 2 + 4 * MAX_VARINT_BYTES + name.length + playerOneName.length
+                + playerTwoName.length + (record.getMoveCount() + 1) * MAX_VARINT_BYTES + CHECKSUM_BYTES;
+        byte[] data = new byte[capacity];
+        int position = 0;
+        for (byte magic : MAGIC) {
+            data[position++] = magic;
+        }
+        data[position++] = VERSION;
+        position = writeVarint(data, position, record.getSideLength());
+        position = writeBytes(data, position, name);
+        position = writeBytes(data, position, playerOneName);
+        position = writeBytes(data, position, playerTwoName);
+        data[position++] = (byte) flags(record);
+        position = writeVarint(data, position, record.getMoveCount());
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            position = writeVarint(data, position, record.getMove(i));
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(data, 0, position);
+        int crc = (int) checksum.getValue();
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            data[position++] = (byte) (crc >>> shift);
+        }
+        return Arrays.copyOf(data, position);
+    }
+
+    /**
+     * Decodes a game record and checks that its moves can be replayed: every move lies on the board
+     * and goes to an empty cell.
+     *
+     * @param data the encoded game
+     * @return the decoded record
+     * @throws InvalidGameDataException if the data is damaged or isn't an encoded game
+     */
+    public static GameRecord decode(byte[] data) throws InvalidGameDataException {
+        // gives error if the data is too short or doesn't start like a game
+        if (data.length < MAGIC.length + 1 + CHECKSUM_BYTES || data[0] != MAGIC[0] || data[1] != MAGIC[1]
+                || data[MAGIC.length] != VERSION) {
+            throw new InvalidGameDataException();
+        }
+        int end = data.length - CHECKSUM_BYTES;
+        CRC32 checksum = new CRC32();
+        checksum.update(data, 0, end);
+        int crc = 0;
+        for (int i = end; i < data.length; i++) {
+            crc = (crc << Byte.SIZE) | (data[i] & BYTE_MASK);
+        }
+        // gives error if the data was damaged
+        if (crc != (int) checksum.getValue()) {
+            throw new InvalidGameDataException();
+        }
+        Reader reader = new Reader(data, MAGIC.length + 1, end);
+        int sideLength = reader.readVarint();
+        String name = reader.readString();
+        String playerOneName = reader.readString();
+        String playerTwoName = reader.readString();
+        int flags = reader.readByte();
+        int moveCount = reader.readVarint();
+        long cellCount = (long) sideLength * sideLength;
+        // gives error if the header can't belong to a game, or if it counts more moves than there are bytes left,
+        // as every move takes one byte at least
+        if (!isLegalSideLength(sideLength) || (flags & ~KNOWN_FLAGS) != 0 || moveCount > cellCount
+                || moveCount > reader.remaining()) {
+            throw new InvalidGameDataException();
+        }
+        boolean swapped = (flags & SWAPPED_FLAG) != 0;
+        int winner = winner(flags);
+        int[] moves = new int[moveCount];
+        BitSet occupied = new BitSet();
+        for (int i = 0; i < moveCount; i++) {
+            int move = reader.readVarint();
+            // gives error if a move lies outside of the board or on an occupied cell
+            if (move >= cellCount || occupied.get(move)) {
+                throw new InvalidGameDataException();
+            }
+            occupied.set(move);
+            moves[i] = move;
+        }
+        // gives error if there is data left, or the swap or the win came without a move
+        if (!reader.isAtEnd() || (swapped || winner != GameRecord.NO_WINNER) && moveCount == 0) {
+            throw new InvalidGameDataException();
+        }
+        return new GameRecord(sideLength, name, playerOneName, playerTwoName, swapped, moves, winner);
+    }
+
+    /**
+     * Checks if a side length follows the rules of a new game: an odd number from 5 to 12345.
+     *
+     * @param sideLength the side length to check
+     * @return true if a game can have this side length, otherwise false
+     */
+    static boolean isLegalSideLength(int sideLength) {
+        return sideLength >= SIDE_LENGTH_MIN && sideLength <= SIDE_LENGTH_MAX && sideLength % ODD_NUMBERS_MODULO != 0;
+    }
+
+    private static int flags(GameRecord record) {
+        int flags = record.isSwapped() ? SWAPPED_FLAG : 0;
+        if (record.getWinner() == 0) {
+            flags |= PLAYER_ONE_WON_FLAG;
+        } else if (record.getWinner() == 1) {
+            flags |= PLAYER_TWO_WON_FLAG;
+        }
+        return flags;
+    }
+
+    private static int winner(int flags) throws InvalidGameDataException {
+        boolean playerOneWon = (flags & PLAYER_ONE_WON_FLAG) != 0;
+        boolean playerTwoWon = (flags & PLAYER_TWO_WON_FLAG) != 0;
+        // gives error if both players won
+        if (playerOneWon && playerTwoWon) {
+            throw new InvalidGameDataException();
+        }
+        if (playerOneWon) {
+            return 0;
+        }
+        return playerTwoWon ? 1 : GameRecord.NO_WINNER;
+    }
+
+    /**
+     * Writes a non-negative number as a varint.
+     *
+     * @param data     the array to write into
+     * @param position the position to write at
+     * @param value    the number
+     * @return the position behind the varint
+     */
+    static int writeVarint(byte[] data, int position, int value) {
+        int next = position;
+        int remaining = value;
+        while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+            data[next++] = (byte) ((remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            remaining >>>= VARINT_PAYLOAD_BITS;
+        }
+        data[next++] = (byte) remaining;
+        return next;
+    }
+
+    /**
+     * Writes bytes preceded by their number as a varint.
+     *
+     * @param data     the array to write into
+     * @param position the position to write at
+     * @param bytes    the bytes
+     * @return the position behind the bytes
+     */
+    static int writeBytes(byte[] data, int position, byte[] bytes) {
+        int next = writeVarint(data, position, bytes.length);
+        System.arraycopy(bytes, 0, data, next, bytes.length);
+        return next + bytes.length;
+    }
+
+    /**
+     * Reads the fields of an encoded game, or of other data encoded the same way, one after another.
+     */
+    static final class Reader {
+
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        Reader(byte[] data, int position, int end) {
+            this.data = data;
+            this.position = position;
+            this.end = end;
+        }
+
+        int readByte() throws InvalidGameDataException {
+            // gives error if the data ends in the middle of a game
+            if (position >= end) {
+                throw new InvalidGameDataException();
+            }
+            return data[position++] & BYTE_MASK;
+        }
+
+        int readVarint() throws InvalidGameDataException {
+            long value = 0;
+            for (int i = 0; i < MAX_VARINT_BYTES; i++) {
+                int current = readByte();
+                value |= (long) (current & VARINT_PAYLOAD_MASK) << (i * VARINT_PAYLOAD_BITS);
+                if ((current & VARINT_CONTINUATION) == 0) {
+                    // gives error if the value doesn't fit into a non-negative int
+                    if (value > Integer.MAX_VALUE) {
+                        throw new InvalidGameDataException();
+                    }
+                    return (int) value;
+                }
+            }
+            throw new InvalidGameDataException();
+        }
+
+        String readString() throws InvalidGameDataException {
+            int length = readVarint();
+            // gives error if the string reaches beyond the data
+            if (length > end - position) {
+                throw new InvalidGameDataException();
+            }
+            String string = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return string;
+        }
+
+        int getPosition() {
+            return this.position;
+        }
+
+        boolean isAtEnd() {
+            return position == end;
+        }
+
+        int remaining() {
+            return end - position;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package hex.model;
+
+/**
+ * This interface represents a listener which makes every step requested in a {@link Hex} game,
+ * so that it can do something around each step.
+ *
+ * @author unxgx
+ */
+@FunctionalInterface
+interface GameListener {
+
+    /**
+     * Is called for every step requested in a game, and has to make the step by running it.
+     * The move of a placed token is the last move of the game once the step has run.
+     *
+     * @param hex   the game
+     * @param event the step, one of {@link SessionEvent#PLACE}, {@link SessionEvent#SWAP},
+     *              {@link SessionEvent#UNDO} and {@link SessionEvent#REDO}
+     * @param step  the step to make
+     */
+    void makeStep(Hex hex, SessionEvent event, Runnable step);
+
+}
@@ -0,0 +1,218 @@
+package hex.model;
+
+import hex.model.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the record of a hex game: the side length of its board, its name, the names of its players,
+ * whether the tokens were swapped, the cells of its moves in the order they were made and the player who won it.
+ * A record holds no board, the game is rebuilt by replaying its moves.
+ *
+ * @author unxgx
+ */
+public final class GameRecord {
+
+    /**
+     * The winner of a game which wasn't won.
+     */
+    public static final int NO_WINNER = -1;
+
+    private final int sideLength;
+    private final String name;
+    private final String playerOneName;
+    private final String playerTwoName;
+    private final boolean swapped;
+    // the index row * sideLength + col of the cell of every move
+    private final int[] moves;
+    private final int winner;
+
+    /**
+     * Instantiates a new game record.
+     *
+     * @param sideLength    the side length of the board
+     * @param name          the name of the game
+     * @param playerOneName the name of player one
+     * @param playerTwoName the name of player two
+     * @param swapped       whether player two swapped the tokens after the first move
+     * @param moves         the indices of the cells of the moves in the order they were made
+     * @param winner        the index of the player who won, 0 for player one and 1 for player two,
+     *                      or {@link #NO_WINNER} if the game wasn't won
+     */
+    public GameRecord(int sideLength, String name, String playerOneName, String playerTwoName,
+                      boolean swapped, int[] moves, int winner) {
+        this.sideLength = sideLength;
+        this.name = name;
+        this.playerOneName = playerOneName;
+        this.playerTwoName = playerTwoName;
+        this.swapped = swapped;
+        this.moves = moves.clone();
+        this.winner = winner;
+    }
+
+    /**
+     * Creates the record of the current state of a game.
+     *
+     * @param hex the game to record
+     * @return the record of the game
+     */
+    public static GameRecord of(Hex hex) {
+        int sideLength = hex.getBoardView().getSideLength();
+        MoveLog log = hex.getMoves();
+        int[] moves = new int[log.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = log.getY(i) * sideLength + log.getX(i);
+        }
+        // the player pointer stays on the winner once a game is won
+        int winner = hex.isGameWon() ? hex.getPlayerPointer() : NO_WINNER;
+        return new GameRecord(sideLength, hex.getName(), hex.getPlayer(0).getName(), hex.getPlayer(1).getName(),
+                hex.isSwapped(), moves, winner);
+    }
+
+    /**
+     * Creates the record of a game as if every undone step was made again. Replaying it and then taking back
+     * {@link Hex#getRedoableSteps()} steps restores the game together with the steps that can be redone.
+     *
+     * @param hex the game to record
+     * @return the record of the game with its undone steps
+     */
+    static GameRecord ofRedoableLine(Hex hex) {
+        int sideLength = hex.getBoardView().getSideLength();
+        MoveLog log = hex.getMoves();
+        MoveLog undone = hex.getUndoneMoves();
+        int[] moves = new int[log.size() + undone.size()];
+        for (int i = 0; i < log.size(); i++) {
+            moves[i] = log.getY(i) * sideLength + log.getX(i);
+        }
+        // the latest undone move is the next one to redo
+        for (int i = 0; i < undone.size(); i++) {
+            int turn = undone.size() - 1 - i;
+            moves[log.size() + i] = undone.getY(turn) * sideLength + undone.getX(turn);
+        }
+        return new GameRecord(sideLength, hex.getName(), hex.getPlayer(0).getName(), hex.getPlayer(1).getName(),
+                hex.isSwapped() || hex.isSwapUndone(), moves, NO_WINNER);
+    }
+
+    /**
+     * Rebuilds the game by replaying the moves of this record on a new board. The swap is made after the first move,
+     * and the winner is evaluated after the last move, just like during a game.
+     *
+     * @param gameName  the name of the rebuilt game
+     * @param playerOne player one of the rebuilt game
+     * @param playerTwo player two of the rebuilt game
+     * @param backend   the way the board of the rebuilt game stores its cells and decides connections
+     * @return the rebuilt game
+     */
+    public Hex replay(String gameName, Player playerOne, Player playerTwo, BoardBackend backend) {
+        playerOne.setToken(Entry.X);
+        playerTwo.setToken(Entry.O);
+        Hex hex = new Hex(sideLength, backend, playerOne, playerTwo, gameName);
+        for (int i = 0; i < moves.length; i++) {
+            if (i == 1 && swapped) {
+                hex.swap();
+            }
+            hex.set(moves[i] % sideLength, moves[i] / sideLength);
+        }
+        if (moves.length == 1 && swapped) {
+            hex.swap();
+        }
+        if (moves.length > 0 && hex.evaluateWinner() != null) {
+            hex.setWinningPathToBack();
+        }
+        return hex;
+    }
+
+    /**
+     * Gets the side length of the board.
+     *
+     * @return the side length of the board
+     */
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
+    /**
+     * Gets the name of the game.
+     *
+     * @return the name of the game
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the name of player one.
+     *
+     * @return the name of player one
+     */
+    public String getPlayerOneName() {
+        return this.playerOneName;
+    }
+
+    /**
+     * Gets the name of player two.
+     *
+     * @return the name of player two
+     */
+    public String getPlayerTwoName() {
+        return this.playerTwoName;
+    }
+
+    /**
+     * Checks whether player two swapped the tokens after the first move.
+     *
+     * @return true if the tokens were swapped, otherwise false
+     */
+    public boolean isSwapped() {
+        return this.swapped;
+    }
+
+    /**
+     * Gets the number of moves.
+     *
+     * @return the number of moves
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Gets the index {@code row * sideLength + col} of the cell of a move.
+     *
+     * @param turn the turn of the move, starting at 0
+     * @return the index of the cell
+     */
+    public int getMove(int turn) {
+        return moves[turn];
+    }
+
+    /**
+     * Gets the player who won the game.
+     *
+     * @return the index of the player, 0 for player one and 1 for player two, or {@link #NO_WINNER}
+     */
+    public int getWinner() {
+        return this.winner;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord record = (GameRecord) other;
+        return sideLength == record.sideLength && swapped == record.swapped && winner == record.winner
+                && name.equals(record.name)
+                && playerOneName.equals(record.playerOneName) && playerTwoName.equals(record.playerTwoName)
+                && Arrays.equals(moves, record.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * sideLength + name.hashCode()) + Arrays.hashCode(moves);
+    }
+
+}
@@ -3,10 +3,7 @@ package hex.model;
 import hex.model.entity.Player;
 
 import java.util.List;
-import java.util.Map;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 
 /**
  * This class represents a hex game.
@@ -15,30 +12,35 @@ import java.util.HashMap;
  */
 public class Hex {
 
-    private static final String HISTORY_TEMPLATE = "%s: %d %d";
-
     private final String name;
     private int playerPointer;
     private int currentTurn = 0;
     private final List<Player> players = new ArrayList<>();
-    private final Map<Integer, String> history;
+    private final MoveLog moves;
+    // the moves taken back by undo, the latest last, until a new move is made
+    private final MoveLog undoneMoves;
+    private boolean swapUndone = false;
     private final Board board;
     private boolean gameWon = false;
     private boolean swapped = false;
+    // makes every step requested through the public methods, null if the steps are made right away
+    private GameListener listener;
 
     /**
      * initializes a new hex game.
      *
      * @param sideLength side length of the board
+     * @param backend    the way the board stores its cells and decides connections
      * @param playerOne  player one
      * @param playerTwo  player two
      * @param name       name of the game
      */
-    public Hex(int sideLength, Player playerOne, Player playerTwo, String name) {
-        this.board = new Board(sideLength);
+    public Hex(int sideLength, BoardBackend backend, Player playerOne, Player playerTwo, String name) {
+        this.board = new Board(sideLength, backend);
         this.players.add(playerOne);
         this.players.add(playerTwo);
-        this.history = new HashMap<>();
+        this.moves = new MoveLog();
+        this.undoneMoves = new MoveLog();
         this.name = name;
     }
 
@@ -50,8 +52,15 @@ public class Hex {
      * @param yCoordinate The y-coordinate of the cell.
      */
     public void set(int xCoordinate, int yCoordinate) {
+        makeStep(SessionEvent.PLACE, () -> {
+            clearUndoneMoves();
+            place(xCoordinate, yCoordinate);
+        });
+    }
+
+    private void place(int xCoordinate, int yCoordinate) {
         board.set(xCoordinate, yCoordinate, getCurrentPlayer().getToken());
-        history.put(currentTurn, String.format(HISTORY_TEMPLATE, getCurrentPlayer().getName(), xCoordinate, yCoordinate));
+        moves.append(playerPointer, xCoordinate, yCoordinate);
         nextPlayer();
         nextTurn();
     }
@@ -68,21 +77,129 @@ public class Hex {
      * Swaps the player tokens, changing the game's token order. It also adjusts the history accordingly.
      */
     public void swap() {
+        makeStep(SessionEvent.SWAP, () -> {
+            clearUndoneMoves();
+            applySwap();
+        });
+    }
+
+    private void applySwap() {
         players.get(0).setToken(Entry.O);
         players.get(1).setToken(Entry.X);
         this.swapped = true;
+        // the first token now belongs to the player who swapped
+        moves.setPlayer(0, playerPointer);
+        nextPlayer();
+    }
+
+    /**
+     * Gets the number of steps that can be undone, every move and the swap.
+     *
+     * @return The number of steps that can be undone.
+     */
+    public int getUndoableSteps() {
+        return currentTurn + (swapped ? 1 : 0);
+    }
+
+    /**
+     * Gets the number of steps that were undone and can be redone, until a new move is made.
+     *
+     * @return The number of steps that can be redone.
+     */
+    public int getRedoableSteps() {
+        return undoneMoves.size() + (swapUndone ? 1 : 0);
+    }
 
-        String firstMoveHistory = getHistory().get(0);
-        String[] parts = firstMoveHistory.split(":");
-        String firstMove = parts[1].trim();
-        String[] firstMoveString = firstMove.split(" ");
-        int[] firstMoveCoordinates = new int[firstMoveString.length];
+    /**
+     * Takes back the last step, which is either the last move or the swap, and gives the turn back to the player
+     * who made it. A won game continues. Taking back a move costs the same on every board, no matter how long
+     * the game is.
+     */
+    public void undo() {
+        makeStep(SessionEvent.UNDO, this::takeBack);
+    }
 
-        for (int i = 0; i < firstMoveString.length; i++) {
-            firstMoveCoordinates[i] = Integer.parseInt(firstMoveString[i]);
+    private void takeBack() {
+        // the swap is the step between the first and the second move
+        if (swapped && currentTurn == 1) {
+            players.get(0).setToken(Entry.X);
+            players.get(1).setToken(Entry.O);
+            this.swapped = false;
+            this.swapUndone = true;
+            moves.setPlayer(0, 0);
+            playerPointer = 1;
+            return;
         }
-        history.put(0, String.format(HISTORY_TEMPLATE, getCurrentPlayer().getName(), firstMoveCoordinates[0], firstMoveCoordinates[1]));
-        nextPlayer();
+        int lastTurn = currentTurn - 1;
+        int player = moves.getPlayer(lastTurn);
+        int xCoordinate = moves.getX(lastTurn);
+        int yCoordinate = moves.getY(lastTurn);
+        board.set(xCoordinate, yCoordinate, Entry.EMPTY);
+        moves.removeLast();
+        undoneMoves.append(player, xCoordinate, yCoordinate);
+        playerPointer = player;
+        currentTurn--;
+        this.gameWon = false;
+    }
+
+    /**
+     * Makes the last undone step again.
+     */
+    public void redo() {
+        makeStep(SessionEvent.REDO, this::makeAgain);
+    }
+
+    private void makeAgain() {
+        if (swapUndone && currentTurn == 1) {
+            this.swapUndone = false;
+            applySwap();
+        } else {
+            int last = undoneMoves.size() - 1;
+            int xCoordinate = undoneMoves.getX(last);
+            int yCoordinate = undoneMoves.getY(last);
+            undoneMoves.removeLast();
+            place(xCoordinate, yCoordinate);
+        }
+    }
+
+    /**
+     * Gets the moves taken back by undo, the latest last, until a new move is made.
+     *
+     * @return the log of the undone moves
+     */
+    MoveLog getUndoneMoves() {
+        return this.undoneMoves;
+    }
+
+    /**
+     * Checks whether the swap was taken back by undo and can be made again.
+     *
+     * @return true if the swap can be redone, otherwise false
+     */
+    boolean isSwapUndone() {
+        return this.swapUndone;
+    }
+
+    /**
+     * Sets the listener which makes every step of this game.
+     *
+     * @param listener the listener, or null to make the steps right away
+     */
+    void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    private void makeStep(SessionEvent event, Runnable step) {
+        if (listener == null) {
+            step.run();
+        } else {
+            listener.makeStep(this, event, step);
+        }
+    }
+
+    private void clearUndoneMoves() {
+        undoneMoves.clear();
+        this.swapUndone = false;
     }
 
     /**
@@ -118,7 +235,8 @@ public class Hex {
     }
 
     /**
-     * Gets a copy of the game board.
+     * Gets a copy of the game board, which can be changed without affecting the game.
+     * Callers that only read the board should use {@link #getBoardView()} instead.
      *
      * @return a copy of the game board
      */
@@ -126,6 +244,15 @@ public class Hex {
         return board.copy();
     }
 
+    /**
+     * Gets a read-only view of the game board, which reflects the current state without copying it.
+     *
+     * @return a read-only view of the game board
+     */
+    public BoardView getBoardView() {
+        return board;
+    }
+
     /**
      * Checks if a specified cell on the game board is empty.
      *
@@ -165,12 +292,22 @@ public class Hex {
     }
 
     /**
-     * Gets the game history, which includes all player moves.
+     * Gets the player with the specified index.
+     *
+     * @param index The index of the player, 0 for player one and 1 for player two.
+     * @return The player.
+     */
+    public Player getPlayer(int index) {
+        return players.get(index);
+    }
+
+    /**
+     * Gets the game history, which includes all player moves. The log is read-only outside of the game.
      *
-     * @return An unmodifiable map of game history entries.
+     * @return The log of the moves of the game.
      */
-    public Map<Integer, String> getHistory() {
-        return Collections.unmodifiableMap(this.history);
+    public MoveLog getMoves() {
+        return this.moves;
     }
 
     /**
@@ -3,85 +3,408 @@ package hex.model;
 import hex.ui.InputHandler;
 import hex.model.entity.Player;
 
-import java.util.HashMap;
-import java.util.Collections;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This class represents a control center that manages the hex games.
  * It provides an interface above games, allowing to create, switch and start hex games.
+ * Every game is a {@link Session} with players of its own, copied from the players of the hub,
+ * and the sessions are kept in a {@link SessionRegistry}, so games can be created and played on several threads
+ * at once. Only the console plays one current game at a time.
+ * To stay within a memory budget, the least recently used idle sessions can be spilled to disk,
+ * and their games are loaded again as soon as they are switched to.
  *
  * @author unxgx
  */
 public class Hub {
 
     private static final String FIRST_GAME_NAME = "Prime";
+    private static final String ERROR_SPILL_DAMAGED = "A spilled game could not be loaded.";
+    private static final int RESIDENT_SESSIONS_CAPACITY = 16;
+    private static final float RESIDENT_SESSIONS_LOAD_FACTOR = 0.75f;
+    // up to this side length a row of the bitboard fits into a single word
+    private static final int BITBOARD_MAX_SIDE_LENGTH = Long.SIZE;
+    // from this side length on, games usually hold only a small share of tokens
+    private static final int SPARSE_BOARD_SIDE_LENGTH = 1000;
     private final int sideLength;
-    private Hex currentGame;
+    private volatile Hex currentGame;
     private final Map<Hex, InputHandler> games;
-    private final Map<String, Hex> gamesWithName;
+    private final SessionRegistry sessions;
     private final Player playerOne;
     private final Player playerTwo;
     private final boolean autoPrint;
     private final boolean useAI;
-
+    // the archive finished games are appended to, null if they aren't archived
+    private volatile GameArchive archive;
+    // the journal every session event is appended to, null if the sessions aren't journaled
+    private SessionJournal journal;
+    // steps and new sessions share this lock while they are journaled, a snapshot takes it exclusively
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private volatile int journaledCurrentGame = -1;
+    private Hex startingGame;
+    // the directory idle sessions are spilled to, null if all sessions are kept in memory
+    private volatile SessionSpill spill;
+    private long memoryBudget;
+    // the sessions held in memory with their estimated size, the least recently used first, guarded by itself
+    private final Map<Session, Long> residentSessions = new LinkedHashMap<>(RESIDENT_SESSIONS_CAPACITY,
+            RESIDENT_SESSIONS_LOAD_FACTOR, true);
+    private long residentBytes;
 
     /**
      * creates a new hub.
      *
      * @param sideLength side length of the hex games
-     * @param playerOne  player one
-     * @param playerTwo  player two
+     * @param playerOne  player one, copied for every game
+     * @param playerTwo  player two, copied for every game
      * @param autoPrint  whether the board should be printed automatically
      * @param useAI      whether the AI should be used
      */
     public Hub(int sideLength, Player playerOne, Player playerTwo, boolean autoPrint, boolean useAI) {
+        this(sideLength, playerOne, playerTwo, autoPrint, useAI, true);
+    }
+
+    private Hub(int sideLength, Player playerOne, Player playerTwo, boolean autoPrint, boolean useAI,
+                boolean createFirstGame) {
         this.sideLength = sideLength;
         this.playerOne = playerOne;
         this.playerTwo = playerTwo;
         this.autoPrint = autoPrint;
-        this.games = new HashMap<>();
-        this.gamesWithName = new LinkedHashMap<>();
+        this.games = new ConcurrentHashMap<>();
+        this.sessions = new SessionRegistry();
         this.useAI = useAI;
-        createGame(FIRST_GAME_NAME);
+        if (createFirstGame) {
+            this.startingGame = createGame(FIRST_GAME_NAME);
+        }
     }
 
     /**
-     * Starts the initial game, with the name "Prime".
+     * Creates a hub whose sessions are journaled. The games written into the journal are rebuilt first,
+     * and the hub starts with the game that was current last. If the journal holds no game,
+     * the hub starts with a new game, with the name "Prime".
+     *
+     * @param sideLength side length of new hex games
+     * @param playerOne  player one, copied for every game
+     * @param playerTwo  player two, copied for every game
+     * @param autoPrint  whether the board should be printed automatically
+     * @param useAI      whether the AI should be used
+     * @param journal    the journal to rebuild the games from and to append every session event to
+     * @return the created hub
+     * @throws InvalidGameDataException if the journal holds an event that can't be replayed
+     */
+    public static Hub recover(int sideLength, Player playerOne, Player playerTwo, boolean autoPrint, boolean useAI,
+                              SessionJournal journal) throws InvalidGameDataException {
+        Hub hub = new Hub(sideLength, playerOne, playerTwo, autoPrint, useAI, false);
+        journal.replay(hub.new Recovery());
+        hub.journal = journal;
+        if (hub.sessions.size() == 0) {
+            hub.startingGame = hub.createGame(FIRST_GAME_NAME);
+        } else if (hub.startingGame == null) {
+            hub.startingGame = hub.sessions.getSessions().get(0).getGame();
+        }
+        return hub;
+    }
+
+    /**
+     * Starts the initial game, with the name "Prime" or the game that was current last in the journal,
+     * and hands every line of user input to the current game until the user quits.
+     * Starting and switching games only changes the game the next line goes to.
      */
     public void start() {
-        Hex startingGame = gamesWithName.get(FIRST_GAME_NAME);
+        Scanner scanner = new Scanner(System.in);
         startGame(startingGame);
+        while (currentGame != null && games.get(currentGame).isRunning() && scanner.hasNextLine()) {
+            games.get(currentGame).handleInput(scanner.nextLine());
+        }
+        scanner.close();
+        for (Hex game : games.keySet()) {
+            closePlayers(game);
+        }
+    }
+
+    private static void closePlayers(Hex game) {
+        game.getPlayer(0).close();
+        game.getPlayer(1).close();
     }
 
     /**
-     * Creates a new Hex game with the specified name and adds it to the lists of managed games.
+     * Creates a new Hex game with the specified name and its own players, and registers it as a new session.
+     * Large boards only store the cells holding a token until the game fills them up.
      *
      * @param name the name of the game
-     * @return the created game
+     * @return the created game, or null if the name is already used
      */
     public Hex createGame(String name) {
-        Hex newGame = new Hex(sideLength, playerOne, playerTwo, name);
-        InputHandler inputHandler = new InputHandler(newGame, autoPrint, this, useAI);
-        games.put(newGame, inputHandler);
-        gamesWithName.put(name, newGame);
-        return newGame;
+        Player one = playerOne.copy();
+        Player two = playerTwo.copy();
+        return register(new Hex(sideLength, backendFor(sideLength), one, two, name), SessionEvent.CREATE);
+    }
+
+    /**
+     * Rebuilds a recorded game with the specified name and its own players, and registers it as a new session.
+     *
+     * @param name   the name of the game
+     * @param record the record of the game
+     * @return the rebuilt game, or null if the name is already used
+     */
+    public Hex loadGame(String name, GameRecord record) {
+        Hex loadedGame = record.replay(name, playerOne.copy(), playerTwo.copy(), backendFor(record.getSideLength()));
+        return register(loadedGame, SessionEvent.LOAD);
+    }
+
+    private Hex register(Hex newGame, SessionEvent event) {
+        if (journal == null) {
+            return addGame(newGame);
+        }
+        Hex registeredGame;
+        journalLock.readLock().lock();
+        try {
+            // the sessions have to be journaled in the order they are numbered
+            synchronized (sessions) {
+                registeredGame = addGame(newGame);
+                if (registeredGame != null && event == SessionEvent.CREATE) {
+                    journal.created(newGame.getBoardView().getSideLength(), newGame.getName());
+                } else if (registeredGame != null) {
+                    journal.loaded(newGame);
+                }
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        snapshotIfDue();
+        return registeredGame;
+    }
+
+    private Hex addGame(Hex newGame) {
+        Session session = sessions.register(newGame);
+        if (session == null) {
+            return null;
+        }
+        attach(session, newGame);
+        return use(session);
+    }
+
+    private void attach(Session session, Hex game) {
+        if (useAI) {
+            game.getPlayer(1).setCurrentHex(game);
+        }
+        game.setListener(this::makeStep);
+        games.put(game, new InputHandler(game, autoPrint, this, useAI, session.isStarted()));
+    }
+
+    /**
+     * Rebuilds a game from the record of its line of play, taking back the steps that were undone.
+     *
+     * @param record      the record of the game with the undone steps made again
+     * @param undoneSteps the number of steps to take back
+     * @param playerOne   player one of the rebuilt game
+     * @param playerTwo   player two of the rebuilt game
+     * @return the rebuilt game
+     * @throws InvalidGameDataException if more steps are to be taken back than were made
+     */
+    static Hex rebuild(GameRecord record, int undoneSteps, Player playerOne, Player playerTwo)
+            throws InvalidGameDataException {
+        Hex game = record.replay(record.getName(), playerOne, playerTwo, backendFor(record.getSideLength()));
+        // gives error if more steps are to be taken back than were made
+        if (undoneSteps > game.getUndoableSteps()) {
+            throw new InvalidGameDataException();
+        }
+        for (int i = 0; i < undoneSteps; i++) {
+            game.undo();
+        }
+        return game;
+    }
+
+    /**
+     * Spills the least recently used idle sessions to a directory whenever their games are estimated
+     * to take more memory than the budget. The current game and the game switched to are never spilled.
+     *
+     * @param spill        the directory to spill sessions to
+     * @param memoryBudget the memory the games in memory may take, in bytes
+     */
+    public void setSpill(SessionSpill spill, long memoryBudget) {
+        synchronized (residentSessions) {
+            this.memoryBudget = memoryBudget;
+            this.spill = spill;
+            for (Session session : sessions.getSessions()) {
+                track(session);
+            }
+            spillIdleSessions(sessions.get(startingGame));
+        }
+    }
+
+    /**
+     * Gets the game of a session, loading it from disk if it was spilled, and marks the session as used last.
+     */
+    private Hex use(Session session) {
+        if (spill == null) {
+            return session.getGame();
+        }
+        synchronized (residentSessions) {
+            // the current game may have grown since it was used last
+            Hex current = currentGame;
+            if (current != null) {
+                track(sessions.get(current));
+            }
+            if (session.isSpilled()) {
+                load(session);
+            }
+            track(session);
+            spillIdleSessions(session);
+            return session.getGame();
+        }
+    }
+
+    private void track(Session session) {
+        long bytes = session.estimateBytes();
+        Long previousBytes = residentSessions.put(session, bytes);
+        residentBytes += bytes - (previousBytes == null ? 0 : previousBytes);
+    }
+
+    private void spillIdleSessions(Session usedSession) {
+        Hex current = currentGame;
+        Iterator<Map.Entry<Session, Long>> leastRecentlyUsed = residentSessions.entrySet().iterator();
+        while (residentBytes > memoryBudget && leastRecentlyUsed.hasNext()) {
+            Map.Entry<Session, Long> entry = leastRecentlyUsed.next();
+            Session session = entry.getKey();
+            if (session != usedSession && session.getGame() != current && spill(session)) {
+                residentBytes -= entry.getValue();
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+
+    private boolean spill(Session session) {
+        Hex game = session.getGame();
+        // a game that can't be written stays in memory
+        try {
+            spill.write(session);
+        } catch (IOException e) {
+            return false;
+        }
+        game.setListener(null);
+        games.remove(game);
+        sessions.unbind(game);
+        session.spill();
+        closePlayers(game);
+        return true;
+    }
+
+    private void load(Session session) {
+        Hex game;
+        // gives error if the spilled game can't be read back, it was written by this hub
+        try {
+            game = spill.load(session);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InvalidGameDataException e) {
+            throw new IllegalStateException(ERROR_SPILL_DAMAGED);
+        }
+        session.restore(game);
+        sessions.bind(session, game);
+        attach(session, game);
     }
 
     /**
-     * Starts the specified Hex game.
+     * Makes a step of a game. A journaled step is appended to the journal before another thread can take
+     * a snapshot, steps of different games are made in parallel.
+     */
+    private void makeStep(Hex game, SessionEvent event, Runnable step) {
+        if (journal == null) {
+            step.run();
+            return;
+        }
+        journalLock.readLock().lock();
+        try {
+            step.run();
+            int number = sessions.get(game).getNumber();
+            MoveLog moves = game.getMoves();
+            if (event == SessionEvent.PLACE) {
+                int last = moves.size() - 1;
+                journal.stepMade(number, event, moves.getX(last), moves.getY(last));
+            } else {
+                journal.stepMade(number, event, 0, 0);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        snapshotIfDue();
+    }
+
+    private void journalSwitch(Hex game) {
+        if (journal == null) {
+            return;
+        }
+        journalLock.readLock().lock();
+        try {
+            journaledCurrentGame = sessions.get(game).getNumber();
+            journal.switched(journaledCurrentGame);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        snapshotIfDue();
+    }
+
+    private void snapshotIfDue() {
+        if (!journal.isSnapshotDue()) {
+            return;
+        }
+        journalLock.writeLock().lock();
+        try {
+            // another thread may have taken the snapshot meanwhile
+            if (journal.isSnapshotDue()) {
+                journal.snapshot(encodeGames(), journaledCurrentGame);
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private List<byte[]> encodeGames() {
+        List<byte[]> encodedGames = new ArrayList<>();
+        // no game is spilled or loaded meanwhile
+        synchronized (residentSessions) {
+            for (Session session : sessions.getSessions()) {
+                Hex game = session.getGame();
+                try {
+                    encodedGames.add(game == null ? spill.read(session) : GameCodec.encodeWithRedoableSteps(game));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return encodedGames;
+    }
+
+    static BoardBackend backendFor(int sideLength) {
+        if (sideLength <= BITBOARD_MAX_SIDE_LENGTH) {
+            return BoardBackend.BITBOARD;
+        }
+        return sideLength >= SPARSE_BOARD_SIDE_LENGTH ? BoardBackend.SPARSE : BoardBackend.PACKED;
+    }
+
+    /**
+     * Starts the specified Hex game, which gets the next line of user input.
      *
      * @param game the game to start
      */
     public void startGame(Hex game) {
+        Session session = sessions.get(game);
+        use(session);
+        session.start();
         InputHandler inputHandler = games.get(game);
         currentGame = game;
-        if (useAI) {
-            playerTwo.setCurrentHex(currentGame);
-        }
-        adjustTokens(game);
-        inputHandler.interact();
+        journalSwitch(game);
+        inputHandler.activate();
     }
 
     /**
@@ -96,43 +419,149 @@ public class Hub {
     }
 
     /**
-     * Switches the active game to the one with the given name.
+     * Switches the active game to the one with the given name, which gets the next line of user input.
      *
      * @param name the name of the game to switch to
      */
     public void switchGame(String name) {
-        Hex newGame = gamesWithName.get(name);
+        Session session = sessions.get(name);
+        Hex newGame = use(session);
+        session.start();
         closeGame(currentGame);
         InputHandler inputHandler = games.get(newGame);
         currentGame = newGame;
-        if (useAI) {
-            playerTwo.setCurrentHex(currentGame);
+        journalSwitch(newGame);
+        inputHandler.activate(true);
+    }
+
+    /**
+     * Sets the archive every finished game is appended to.
+     *
+     * @param archive the archive to use, or null to stop archiving games
+     */
+    public void setArchive(GameArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Appends a finished game to the archive, if there is one and the game wasn't archived before.
+     * A game won again after undoing its win is archived with its first win only.
+     *
+     * @param game the finished game
+     * @throws IOException if the game can't be written to the archive
+     */
+    public void archiveGame(Hex game) throws IOException {
+        Session session = sessions.get(game);
+        if (archive == null || session != null && session.isArchived()) {
+            return;
+        }
+        archive.append(game);
+        if (session != null) {
+            session.archive();
         }
-        adjustTokens(newGame);
-        inputHandler.interact(true);
     }
 
     /**
-     * resets the tokens of the players according to the game.
-     * @param game the game to adjust the tokens for
+     * Rebuilds the games of a journal, making every step again just like during a game.
      */
-    private void adjustTokens(Hex game) {
-        if (!game.isSwapped()) {
-            playerOne.setToken(Entry.X);
-            playerTwo.setToken(Entry.O);
-        } else {
-            playerOne.setToken(Entry.O);
-            playerTwo.setToken(Entry.X);
+    private final class Recovery implements SessionJournal.Replay {
+
+        @Override
+        public void created(int sideLength, String name) throws InvalidGameDataException {
+            Hex game = new Hex(sideLength, backendFor(sideLength), playerOne.copy(), playerTwo.copy(), name);
+            // gives error if the name is already used
+            if (addGame(game) == null) {
+                throw new InvalidGameDataException();
+            }
+        }
+
+        @Override
+        public void loaded(GameRecord game, int undoneSteps) throws InvalidGameDataException {
+            Hex loadedGame = rebuild(game, undoneSteps, playerOne.copy(), playerTwo.copy());
+            // gives error if the name is already used
+            if (addGame(loadedGame) == null) {
+                throw new InvalidGameDataException();
+            }
+        }
+
+        @Override
+        public void stepMade(int number, SessionEvent event, int xCoordinate, int yCoordinate)
+                throws InvalidGameDataException {
+            Hex game = getGame(number);
+            // gives error if the step can't be made in the game
+            if (!canMakeStep(game, event, xCoordinate, yCoordinate)) {
+                throw new InvalidGameDataException();
+            }
+            switch (event) {
+                case PLACE:
+                    game.set(xCoordinate, yCoordinate);
+                    break;
+                case SWAP:
+                    game.swap();
+                    break;
+                case UNDO:
+                    game.undo();
+                    break;
+                default:
+                    game.redo();
+                    break;
+            }
+            if (!game.isGameWon() && game.evaluateWinner() != null) {
+                game.setWinningPathToBack();
+            }
+        }
+
+        @Override
+        public void switched(int number) throws InvalidGameDataException {
+            startingGame = getGame(number);
+            journaledCurrentGame = number;
+        }
+
+        private Hex getGame(int number) throws InvalidGameDataException {
+            // gives error if there is no game with this number
+            if (number >= sessions.size()) {
+                throw new InvalidGameDataException();
+            }
+            return sessions.getSessions().get(number).getGame();
+        }
+
+        private boolean canMakeStep(Hex game, SessionEvent event, int xCoordinate, int yCoordinate) {
+            int boardSideLength = game.getBoardView().getSideLength();
+            switch (event) {
+                case PLACE:
+                    return !game.isGameWon() && xCoordinate < boardSideLength && yCoordinate < boardSideLength
+                            && game.isEmpty(xCoordinate, yCoordinate);
+                case SWAP:
+                    return !game.isGameWon() && !game.isSwapped() && game.getCurrentTurn() == 1;
+                case UNDO:
+                    return game.getUndoableSteps() > 0;
+                case REDO:
+                    return !game.isGameWon() && game.getRedoableSteps() > 0;
+                default:
+                    return false;
+            }
         }
+
+    }
+
+    /**
+     * Returns the game with the given name, loading it from disk if it was spilled.
+     *
+     * @param name the name of the game
+     * @return the game, or null if there is no game with this name
+     */
+    public Hex getGame(String name) {
+        Session session = sessions.get(name);
+        return session == null ? null : use(session);
     }
 
     /**
-     * Returns an unmodifiable map of games with their names as keys.
+     * Returns the registry of all sessions.
      *
-     * @return An unmodifiable map of games with their names.
+     * @return The registry of all sessions.
      */
-    public Map<String, Hex> getGamesWithName() {
-        return Collections.unmodifiableMap(this.gamesWithName);
+    public SessionRegistry getSessions() {
+        return this.sessions;
     }
 
     /**
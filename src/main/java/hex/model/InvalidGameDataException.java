@@ -0,0 +1,12 @@
+package hex.model;
+
+/**
+ * This class represents a custom exception, to handle game data that can't be decoded.
+ *
+ * @author unxgx
+ */
+public class InvalidGameDataException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+}
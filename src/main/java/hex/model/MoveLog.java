@@ -0,0 +1,123 @@
+package hex.model;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the moves of a hex game in the order they were made. Every move is packed into one
+ * {@code long} holding the index of the player who made it and the coordinates of the cell,
+ * so the log takes eight bytes per move and any move is read in constant time without parsing.
+ * Moves can only be appended and taken back by the game, which also rewrites the player of the first move on a swap.
+ *
+ * @author unxgx
+ */
+public final class MoveLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int PLAYER_SHIFT = 62;
+    private static final int X_SHIFT = 31;
+    private static final long COORDINATE_MASK = (1L << X_SHIFT) - 1;
+
+    private long[] moves;
+    private int size;
+
+    /**
+     * Instantiates a new empty move log.
+     */
+    MoveLog() {
+        this.moves = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends a move to the log.
+     *
+     * @param player      the index of the player who made the move
+     * @param xCoordinate the x-coordinate of the cell
+     * @param yCoordinate the y-coordinate of the cell
+     */
+    void append(int player, int xCoordinate, int yCoordinate) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = pack(player, xCoordinate, yCoordinate);
+    }
+
+    /**
+     * Removes the latest move from the log.
+     */
+    void removeLast() {
+        // gives error if there is no move to remove
+        if (size == 0) {
+            throw new IllegalStateException();
+        }
+        size--;
+    }
+
+    /**
+     * Removes all moves from the log.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Changes the player who made a move.
+     *
+     * @param turn   the turn of the move, starting at 0
+     * @param player the index of the player
+     */
+    void setPlayer(int turn, int player) {
+        moves[turn] = pack(player, getX(turn), getY(turn));
+    }
+
+    /**
+     * Gets the number of moves in the log.
+     *
+     * @return the number of moves
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the index of the player who made a move.
+     *
+     * @param turn the turn of the move, starting at 0
+     * @return the index of the player, 0 for player one and 1 for player two
+     */
+    public int getPlayer(int turn) {
+        return (int) (move(turn) >>> PLAYER_SHIFT);
+    }
+
+    /**
+     * Gets the x-coordinate of the cell of a move.
+     *
+     * @param turn the turn of the move, starting at 0
+     * @return the x-coordinate of the cell
+     */
+    public int getX(int turn) {
+        return (int) ((move(turn) >>> X_SHIFT) & COORDINATE_MASK);
+    }
+
+    /**
+     * Gets the y-coordinate of the cell of a move.
+     *
+     * @param turn the turn of the move, starting at 0
+     * @return the y-coordinate of the cell
+     */
+    public int getY(int turn) {
+        return (int) (move(turn) & COORDINATE_MASK);
+    }
+
+    private long move(int turn) {
+        // gives error if the move hasn't been made yet
+        if (turn < 0 || turn >= size) {
+            throw new IndexOutOfBoundsException(turn);
+        }
+        return moves[turn];
+    }
+
+    private static long pack(int player, int xCoordinate, int yCoordinate) {
+        return ((long) player << PLAYER_SHIFT) | ((long) xCoordinate << X_SHIFT) | yCoordinate;
+    }
+
+}
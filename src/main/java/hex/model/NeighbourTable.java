@@ -0,0 +1,135 @@
+package hex.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents the immutable adjacency of the cells of a hex board with a given side length.
+ * A cell is addressed by its index {@code y * sideLength + x}. The neighbours of all cells are precomputed once per
+ * side length in a compressed sparse row layout, an offset per cell into one array of neighbour indices, and the table
+ * is shared by all boards and players. Iterating the neighbours of a cell doesn't allocate anything.
+ * Boards with a side length above {@value #MAX_TABULATED_SIDE_LENGTH} would need hundreds of megabytes for the table,
+ * their neighbours are computed arithmetically instead.
+ *
+ * @author unxgx
+ */
+public final class NeighbourTable {
+
+    private static final int MAX_TABULATED_SIDE_LENGTH = 256;
+    private static final int NO_NEIGHBOUR = -1;
+    private static final Map<Integer, NeighbourTable> TABLES = new ConcurrentHashMap<>();
+    // offsets of the six neighbours of a hexagon: north, south, northeast, west, southwest and east
+    private static final int[] X_OFFSETS = {0, 0, 1, -1, -1, 1};
+    private static final int[] Y_OFFSETS = {-1, 1, -1, 0, 1, 0};
+
+    private final int sideLength;
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    private NeighbourTable(int sideLength) {
+        this.sideLength = sideLength;
+        if (sideLength > MAX_TABULATED_SIDE_LENGTH) {
+            this.offsets = null;
+            this.neighbours = null;
+            return;
+        }
+        int cellCount = sideLength * sideLength;
+        this.offsets = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            offsets[cell + 1] = offsets[cell] + computeDegree(cell);
+        }
+        this.neighbours = new int[offsets[cellCount]];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int position = offsets[cell];
+            for (int direction = 0; direction < X_OFFSETS.length; direction++) {
+                int neighbour = computeNeighbour(cell, direction);
+                if (neighbour != NO_NEIGHBOUR) {
+                    neighbours[position++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the shared neighbour table for the given side length, creating it on first use.
+     *
+     * @param sideLength the side length of the board
+     * @return the neighbour table
+     */
+    public static NeighbourTable of(int sideLength) {
+        return TABLES.computeIfAbsent(sideLength, NeighbourTable::new);
+    }
+
+    /**
+     * Gets the side length of the board this table belongs to.
+     *
+     * @return the side length
+     */
+    public int getSideLength() {
+        return this.sideLength;
+    }
+
+    /**
+     * Gets the number of cells of the board this table belongs to.
+     *
+     * @return the number of cells
+     */
+    public int getCellCount() {
+        return sideLength * sideLength;
+    }
+
+    /**
+     * Gets the number of neighbours of a cell, which is between two in the corners and six inside the board.
+     *
+     * @param cell the index of the cell
+     * @return the number of neighbours
+     */
+    public int degree(int cell) {
+        if (offsets == null) {
+            return computeDegree(cell);
+        }
+        return offsets[cell + 1] - offsets[cell];
+    }
+
+    /**
+     * Gets a neighbour of a cell. The neighbours are ordered north, south, northeast, west, southwest and east,
+     * leaving out those outside the board.
+     *
+     * @param cell     the index of the cell
+     * @param position the position of the neighbour, between 0 and {@code degree(cell) - 1}
+     * @return the index of the neighbour
+     */
+    public int neighbour(int cell, int position) {
+        if (neighbours != null) {
+            return neighbours[offsets[cell] + position];
+        }
+        int remaining = position;
+        for (int direction = 0; direction < X_OFFSETS.length; direction++) {
+            int neighbour = computeNeighbour(cell, direction);
+            if (neighbour != NO_NEIGHBOUR && remaining-- == 0) {
+                return neighbour;
+            }
+        }
+        throw new IndexOutOfBoundsException(position);
+    }
+
+    private int computeDegree(int cell) {
+        int degree = 0;
+        for (int direction = 0; direction < X_OFFSETS.length; direction++) {
+            if (computeNeighbour(cell, direction) != NO_NEIGHBOUR) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    private int computeNeighbour(int cell, int direction) {
+        int x = cell % sideLength + X_OFFSETS[direction];
+        int y = cell / sideLength + Y_OFFSETS[direction];
+        if (x < 0 || x >= sideLength || y < 0 || y >= sideLength) {
+            return NO_NEIGHBOUR;
+        }
+        return y * sideLength + x;
+    }
+
+}
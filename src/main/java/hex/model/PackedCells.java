@@ -0,0 +1,109 @@
+package hex.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * This class stores the cells of a {@link Board} as a packed primitive array. Every cell takes two bits,
+ * which are enough to hold the ordinal of each {@link Entry}, so 32 cells share one {@code long}.
+ * The position of a cell is computed arithmetically from its index, no object is allocated per cell.
+ * The words are split into pages of a {@link PageTrie}, so a copy is made in constant time and shares all pages
+ * until one of both sides writes to them, and pages without any token are never allocated.
+ *
+ * @author unxgx
+ */
+final class PackedCells implements CellStorage {
+
+    private static final int BITS_PER_CELL = 2;
+    private static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+    private static final int WORD_SHIFT = Integer.numberOfTrailingZeros(CELLS_PER_WORD);
+    private static final int MAX_PAGE_SHIFT = 6;
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+
+    private final int size;
+    private final int pageShift;
+    private final int pageCount;
+    private final PageTrie<long[]> pages;
+
+    /**
+     * Instantiates new packed cells, all of them empty.
+     *
+     * @param size the number of cells
+     */
+    PackedCells(int size) {
+        this.size = size;
+        int wordCount = (size + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+        // small boards fit into a single page, which is not larger than the board
+        this.pageShift = Math.min(MAX_PAGE_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(wordCount - 1, 0)));
+        int pageSize = 1 << pageShift;
+        this.pageCount = (wordCount + pageSize - 1) >>> pageShift;
+        this.pages = new PageTrie<>(pageCount, () -> new long[pageSize], long[]::clone);
+    }
+
+    /**
+     * Constructs packed cells sharing the pages of existing ones.
+     *
+     * @param cells the cells to copy
+     */
+    private PackedCells(PackedCells cells) {
+        this.size = cells.size;
+        this.pageShift = cells.pageShift;
+        this.pageCount = cells.pageCount;
+        this.pages = cells.pages.copy();
+    }
+
+    @Override
+    public int get(int index) {
+        int wordIndex = index >>> WORD_SHIFT;
+        long[] page = pages.read(wordIndex >>> pageShift);
+        if (page == null) {
+            return 0;
+        }
+        int shift = (index & (CELLS_PER_WORD - 1)) * BITS_PER_CELL;
+        return (int) ((page[wordIndex & ((1 << pageShift) - 1)] >>> shift) & CELL_MASK);
+    }
+
+    @Override
+    public void set(int index, int code) {
+        int wordIndex = index >>> WORD_SHIFT;
+        long[] page = pages.write(wordIndex >>> pageShift);
+        int shift = (index & (CELLS_PER_WORD - 1)) * BITS_PER_CELL;
+        int offset = wordIndex & ((1 << pageShift) - 1);
+        page[offset] = (page[offset] & ~(CELL_MASK << shift)) | ((code & CELL_MASK) << shift);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Passes the index of every cell holding a token to the action. Pages which were never written and words without
+     * any token are skipped as a whole.
+     *
+     * @param action the action to pass the indices to
+     */
+    @Override
+    public void forEachToken(IntConsumer action) {
+        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+            long[] page = pages.read(pageIndex);
+            if (page == null) {
+                continue;
+            }
+            for (int offset = 0; offset < page.length; offset++) {
+                long word = page[offset];
+                int firstCell = ((pageIndex << pageShift) + offset) << WORD_SHIFT;
+                while (word != 0) {
+                    int cell = Long.numberOfTrailingZeros(word) / BITS_PER_CELL;
+                    action.accept(firstCell + cell);
+                    word &= ~(CELL_MASK << (cell * BITS_PER_CELL));
+                }
+            }
+        }
+    }
+
+    @Override
+    public PackedCells copy() {
+        return new PackedCells(this);
+    }
+
+}
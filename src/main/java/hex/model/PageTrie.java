@@ -0,0 +1,144 @@
+package hex.model;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class represents a persistent array of pages, stored as a trie with 64 children per inner node.
+ * Pages and inner nodes are shared between copies: {@link #copy()} only hands out the root, and a write after a copy
+ * duplicates the page it touches and the inner nodes on the way to it, never more.
+ * Every node remembers the version that created it, a version only changes nodes it created itself.
+ * Pages which were never written aren't allocated at all and read as {@code null}.
+ *
+ * @param <P> the type of the pages, a primitive array
+ * @author unxgx
+ */
+final class PageTrie<P> {
+
+    private static final int BRANCH_SHIFT = 6;
+    private static final int BRANCH_MASK = (1 << BRANCH_SHIFT) - 1;
+
+    private final int depth;
+    private final Supplier<P> pageFactory;
+    private final UnaryOperator<P> pageCopier;
+    private Node<P> root;
+    private Object version;
+
+    /**
+     * Instantiates a new trie without any pages.
+     *
+     * @param pageCount   the number of pages
+     * @param pageFactory creates a new page
+     * @param pageCopier  copies a page
+     */
+    PageTrie(int pageCount, Supplier<P> pageFactory, UnaryOperator<P> pageCopier) {
+        int levels = 0;
+        while ((long) pageCount > 1L << (levels * BRANCH_SHIFT)) {
+            levels++;
+        }
+        this.depth = levels;
+        this.pageFactory = pageFactory;
+        this.pageCopier = pageCopier;
+        this.version = new Object();
+    }
+
+    /**
+     * Constructs a trie sharing all nodes with an existing one.
+     *
+     * @param trie the trie to share the nodes with
+     */
+    private PageTrie(PageTrie<P> trie) {
+        this.depth = trie.depth;
+        this.pageFactory = trie.pageFactory;
+        this.pageCopier = trie.pageCopier;
+        this.root = trie.root;
+        this.version = new Object();
+    }
+
+    /**
+     * Gets a page for reading. The page must not be changed.
+     *
+     * @param pageIndex the index of the page
+     * @return the page, or null if it was never written
+     */
+    P read(int pageIndex) {
+        Node<P> node = root;
+        for (int level = depth - 1; level >= 0 && node != null; level--) {
+            node = node.children[(pageIndex >>> (level * BRANCH_SHIFT)) & BRANCH_MASK];
+        }
+        return node == null ? null : node.page;
+    }
+
+    /**
+     * Gets a page for writing, which belongs to this version only. Shared nodes on the way are copied first.
+     *
+     * @param pageIndex the index of the page
+     * @return the writable page
+     */
+    P write(int pageIndex) {
+        root = own(root, depth > 0);
+        Node<P> node = root;
+        for (int level = depth - 1; level >= 0; level--) {
+            int slot = (pageIndex >>> (level * BRANCH_SHIFT)) & BRANCH_MASK;
+            Node<P> child = own(node.children[slot], level > 0);
+            node.children[slot] = child;
+            node = child;
+        }
+        return node.page;
+    }
+
+    /**
+     * Removes all pages.
+     */
+    void clear() {
+        this.root = null;
+    }
+
+    /**
+     * Creates a copy of this trie in constant time. Both tries share their current nodes from now on.
+     *
+     * @return a copy of this trie
+     */
+    PageTrie<P> copy() {
+        // this version gives up the ownership of its nodes as well, so neither side can change the shared ones
+        this.version = new Object();
+        return new PageTrie<>(this);
+    }
+
+    private Node<P> own(Node<P> node, boolean inner) {
+        if (node == null) {
+            return inner
+                    ? new Node<>(version, newChildren(), null)
+                    : new Node<>(version, null, pageFactory.get());
+        }
+        if (node.version == version) {
+            return node;
+        }
+        return inner
+                ? new Node<>(version, node.children.clone(), null)
+                : new Node<>(version, null, pageCopier.apply(node.page));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P> Node<P>[] newChildren() {
+        return (Node<P>[]) new Node<?>[1 << BRANCH_SHIFT];
+    }
+
+    /**
+     * A node of the trie, either an inner node with children or a leaf with a page.
+     *
+     * @param <P> the type of the pages
+     */
+    private static final class Node<P> {
+        private final Object version;
+        private final Node<P>[] children;
+        private final P page;
+
+        private Node(Object version, Node<P>[] children, P page) {
+            this.version = version;
+            this.children = children;
+            this.page = page;
+        }
+    }
+
+}
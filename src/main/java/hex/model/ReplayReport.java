@@ -0,0 +1,235 @@
+package hex.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents the result of replaying recorded games: how many games ended how,
+ * which games couldn't be read and which games ended differently than recorded.
+ *
+ * @author unxgx
+ */
+public final class ReplayReport {
+
+    private final int[] wins = new int[2];
+    private final List<Integer> damagedGames = new ArrayList<>();
+    private final List<Disagreement> disagreements = new ArrayList<>();
+    private int games;
+    private int unfinishedGames;
+    private long moves;
+    private long nanos;
+
+    /**
+     * Adds a replayed game to the report.
+     *
+     * @param ordinal   the ordinal of the game in the replayed archive
+     * @param record    the record of the game
+     * @param winner    the index of the player who won the replayed game, or {@link GameRecord#NO_WINNER}
+     * @param turnOfWin the turn of the move which won the replayed game, or -1 if it wasn't won
+     */
+    void addGame(int ordinal, GameRecord record, int winner, int turnOfWin) {
+        games++;
+        moves += record.getMoveCount();
+        if (winner == GameRecord.NO_WINNER) {
+            unfinishedGames++;
+        } else {
+            wins[winner]++;
+        }
+        // a game disagrees if another player won or the win came before the last move
+        boolean lateMoves = winner != GameRecord.NO_WINNER && turnOfWin != record.getMoveCount() - 1;
+        if (winner != record.getWinner() || lateMoves) {
+            disagreements.add(new Disagreement(ordinal, record.getName(), record.getWinner(), winner, turnOfWin,
+                    record.getMoveCount()));
+        }
+    }
+
+    /**
+     * Adds a game which couldn't be read to the report.
+     *
+     * @param ordinal the ordinal of the game in the replayed archive
+     */
+    void addDamagedGame(int ordinal) {
+        games++;
+        damagedGames.add(ordinal);
+    }
+
+    /**
+     * Adds the games of another report to this report.
+     *
+     * @param other the report to add
+     */
+    void merge(ReplayReport other) {
+        games += other.games;
+        unfinishedGames += other.unfinishedGames;
+        moves += other.moves;
+        wins[0] += other.wins[0];
+        wins[1] += other.wins[1];
+        damagedGames.addAll(other.damagedGames);
+        disagreements.addAll(other.disagreements);
+    }
+
+    /**
+     * Sets the time the replay took and orders the listed games by their ordinal.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    void finish(long nanos) {
+        this.nanos = nanos;
+        Collections.sort(damagedGames);
+        disagreements.sort(Comparator.comparingInt(Disagreement::getOrdinal));
+    }
+
+    /**
+     * Gets the number of replayed games, including the damaged ones.
+     *
+     * @return the number of games
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * Gets the number of replayed moves.
+     *
+     * @return the number of moves
+     */
+    public long getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Gets the number of replayed games a player won.
+     *
+     * @param player the index of the player, 0 for player one and 1 for player two
+     * @return the number of games
+     */
+    public int getWins(int player) {
+        return wins[player];
+    }
+
+    /**
+     * Gets the number of replayed games nobody won.
+     *
+     * @return the number of games
+     */
+    public int getUnfinishedGames() {
+        return this.unfinishedGames;
+    }
+
+    /**
+     * Gets the ordinals of the games which couldn't be read.
+     *
+     * @return an unmodifiable list of the ordinals in ascending order
+     */
+    public List<Integer> getDamagedGames() {
+        return Collections.unmodifiableList(this.damagedGames);
+    }
+
+    /**
+     * Gets the games which ended differently than recorded.
+     *
+     * @return an unmodifiable list of the disagreements ordered by the ordinals of their games
+     */
+    public List<Disagreement> getDisagreements() {
+        return Collections.unmodifiableList(this.disagreements);
+    }
+
+    /**
+     * Gets the time the replay took.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Gets the number of games replayed per second.
+     *
+     * @return the number of games per second
+     */
+    public double getGamesPerSecond() {
+        return nanos == 0 ? 0 : games * 1e9 / nanos;
+    }
+
+    /**
+     * This class represents a replayed game which ended differently than recorded.
+     */
+    public static final class Disagreement {
+
+        private final int ordinal;
+        private final String name;
+        private final int recordedWinner;
+        private final int replayedWinner;
+        private final int turnOfWin;
+        private final int moveCount;
+
+        private Disagreement(int ordinal, String name, int recordedWinner, int replayedWinner, int turnOfWin,
+                             int moveCount) {
+            this.ordinal = ordinal;
+            this.name = name;
+            this.recordedWinner = recordedWinner;
+            this.replayedWinner = replayedWinner;
+            this.turnOfWin = turnOfWin;
+            this.moveCount = moveCount;
+        }
+
+        /**
+         * Gets the ordinal of the game in the replayed archive.
+         *
+         * @return the ordinal of the game
+         */
+        public int getOrdinal() {
+            return this.ordinal;
+        }
+
+        /**
+         * Gets the name of the game.
+         *
+         * @return the name of the game
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the recorded winner of the game.
+         *
+         * @return the index of the player, or {@link GameRecord#NO_WINNER}
+         */
+        public int getRecordedWinner() {
+            return this.recordedWinner;
+        }
+
+        /**
+         * Gets the winner of the replayed game.
+         *
+         * @return the index of the player, or {@link GameRecord#NO_WINNER}
+         */
+        public int getReplayedWinner() {
+            return this.replayedWinner;
+        }
+
+        /**
+         * Gets the turn of the move which won the replayed game.
+         *
+         * @return the turn of the move starting at 0, or -1 if the replayed game wasn't won
+         */
+        public int getTurnOfWin() {
+            return this.turnOfWin;
+        }
+
+        /**
+         * Gets the number of recorded moves.
+         *
+         * @return the number of moves
+         */
+        public int getMoveCount() {
+            return this.moveCount;
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package hex.model;
+
+import hex.model.entity.HumanPlayer;
+import hex.model.entity.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class replays the games of an archive without any user interaction, to check the rules and the win detection
+ * against the recorded results. Every game is rebuilt move by move through {@link Hex#set(int, int)},
+ * and the winner is evaluated after every move just like during a game.
+ * The archive is split into ranges of games which are replayed in parallel by a fork-join pool.
+ *
+ * @author unxgx
+ */
+public final class Replayer {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    // the number of games below which a range is replayed without splitting it
+    private static final int GAMES_PER_TASK = 64;
+    private static final int NO_TURN = -1;
+
+    private Replayer() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Replays all games of an archive.
+     *
+     * @param archive     the archive to replay
+     * @param parallelism the number of threads to use
+     * @return the report of the replay
+     * @throws IOException if the archive can't be read
+     */
+    public static ReplayReport replay(GameArchive archive, int parallelism) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        ReplayReport report;
+        try {
+            report = pool.invoke(new ReplayTask(archive, 0, archive.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private static void replayGame(GameArchive archive, int ordinal, ReplayReport report) throws IOException {
+        GameRecord record;
+        try {
+            record = archive.get(ordinal);
+        } catch (InvalidGameDataException e) {
+            report.addDamagedGame(ordinal);
+            return;
+        }
+        // every game gets its own players, as the tokens of the players change on a swap
+        Player playerOne = new HumanPlayer(record.getPlayerOneName(), Entry.X);
+        Player playerTwo = new HumanPlayer(record.getPlayerTwoName(), Entry.O);
+        int sideLength = record.getSideLength();
+        Hex hex = new Hex(sideLength, Hub.backendFor(sideLength), playerOne, playerTwo, record.getName());
+        int winner = GameRecord.NO_WINNER;
+        int turnOfWin = NO_TURN;
+        for (int turn = 0; turn < record.getMoveCount(); turn++) {
+            if (turn == 1 && record.isSwapped()) {
+                hex.swap();
+            }
+            int move = record.getMove(turn);
+            hex.set(move % sideLength, move / sideLength);
+            if (hex.evaluateWinner() != null) {
+                // the player pointer stays on the winner, and no move may follow
+                winner = hex.getPlayerPointer();
+                turnOfWin = turn;
+                break;
+            }
+        }
+        report.addGame(ordinal, record, winner, turnOfWin);
+    }
+
+    /**
+     * Replays a range of games of an archive, or splits it into two halves replayed in parallel.
+     */
+    private static final class ReplayTask extends RecursiveTask<ReplayReport> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient GameArchive archive;
+        private final int from;
+        private final int to;
+
+        ReplayTask(GameArchive archive, int from, int to) {
+            this.archive = archive;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReplayReport compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                ReplayReport report = new ReplayReport();
+                try {
+                    for (int ordinal = from; ordinal < to; ordinal++) {
+                        replayGame(archive, ordinal, report);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            ReplayTask second = new ReplayTask(archive, middle, to);
+            second.fork();
+            ReplayReport report = new ReplayTask(archive, from, middle).compute();
+            report.merge(second.join());
+            return report;
+        }
+
+    }
+
+}
@@ -0,0 +1,608 @@
+package hex.model;
+
+import java.util.Arrays;
+
+/**
+ * This class rates positions of Hex by the electrical resistance between the edges of a player. The board is a
+ * network of resistors: an empty cell is a resistor of one ohm, a token of the player conducts perfectly and a token
+ * of the opponent doesn't conduct at all. The edges of the player are held at one and at zero volts, and the
+ * resistance follows from the current between them. More and shorter connections mean a lower resistance, so the
+ * resistances of both players rate a position better than the length of a single shortest connection.
+ * <p>
+ * Connected tokens are contracted into a single node, and tokens touching an edge belong to that edge. The voltages
+ * of the remaining nodes are found by the conjugate gradient method on a matrix in compressed sparse row layout,
+ * preconditioned by an incomplete Cholesky factorization that only changes the diagonal. The voltages of both players
+ * are kept, and every solution starts from the last one, which a single move changes only slightly.
+ * Nothing is allocated after the evaluator was instantiated.
+ *
+ * @author unxgx
+ */
+public final class ResistanceEvaluator {
+
+    /**
+     * The resistance between edges that are connected by tokens.
+     */
+    public static final double CONNECTED = 0;
+    /**
+     * The resistance between edges that are cut off from each other by the opponent.
+     */
+    public static final double CUT = Double.POSITIVE_INFINITY;
+
+    private static final byte EMPTY = (byte) Entry.EMPTY.ordinal();
+    private static final byte X = (byte) Entry.X.ordinal();
+    private static final byte O = (byte) Entry.O.ordinal();
+    private static final int NO_MOVE = -1;
+    // the node of a cell outside the network, and the nodes of both edges, every other node is numbered from zero
+    private static final int BLOCKED = -1;
+    private static final int SOURCE = -2;
+    private static final int SINK = -3;
+    private static final int NO_LEADER = -1;
+    // the edges a cell or a group of tokens touches
+    private static final byte SOURCE_EDGE = 1;
+    private static final byte SINK_EDGE = 2;
+    private static final int BOTH_EDGES = SOURCE_EDGE | SINK_EDGE;
+    private static final double SOURCE_VOLTAGE = 1;
+    private static final double START_VOLTAGE = 0.5;
+    private static final double OUTSIDE_VOLTAGE = -1;
+    // the conductance between two empty cells, half a cell of one ohm each, and between an empty cell and a token
+    // or an edge, which is half a cell only
+    private static final double EMPTY_CONDUCTANCE = 1;
+    private static final double TOKEN_CONDUCTANCE = 2;
+    // the solution is good enough once the residual is this share of the currents into the network, which keeps
+    // the ratings of moves within a few thousandths
+    private static final double TOLERANCE = 1e-4;
+    // resistances are clamped to this range when they are rated, so connections and cuts stay finite
+    private static final double MIN_RESISTANCE = 1e-3;
+    private static final double MAX_RESISTANCE = 1e3;
+    private static final int MAX_DEGREE = 6;
+
+    private final int cellCount;
+    private final NeighbourTable neighbours;
+    // the ordinals of the entries of the cells
+    private final byte[] cells;
+    // the edges of both players every cell is on
+    private final byte[] edgesOfX;
+    private final byte[] edgesOfO;
+    // the voltages of the cells of both players kept from their last solution, and the voltages of trial moves
+    private final double[] voltagesOfX;
+    private final double[] voltagesOfO;
+    private final double[] trialVoltages;
+    private final double[] moveScores;
+    // the first token of the group of every token, and the edges and the node of every group at its first token
+    private final int[] leaders;
+    private final int[] groupEdges;
+    private final int[] groupNodes;
+    // the node of every cell in the last network
+    private final int[] nodes;
+    private final boolean[] reached;
+    private final int[] stack;
+    // the cells of every node, sorted by their node
+    private final int[] memberStart;
+    private final int[] members;
+    // the matrix without its diagonal, every row with the columns below the diagonal first, the diagonal, and the
+    // currents into the nodes from the source edge if all of them were at zero volts
+    private final int[] rowStart;
+    private final int[] upperStart;
+    private final int[] columns;
+    private final double[] values;
+    private final double[] diagonal;
+    private final double[] sourceCurrents;
+    // the position of a column in the row being assembled, valid if the column was seen in that row
+    private final int[] columnPositions;
+    private final int[] columnRows;
+    // the diagonal of the incomplete factorization
+    private final double[] factorDiagonal;
+    private final double[] solution;
+    private final double[] residual;
+    private final double[] direction;
+    private final double[] product;
+    private final double[] preconditioned;
+    private int nodeCount;
+
+    /**
+     * Instantiates a new evaluator of an empty board.
+     *
+     * @param sideLength the side length of the board
+     */
+    public ResistanceEvaluator(int sideLength) {
+        this.cellCount = sideLength * sideLength;
+        this.neighbours = NeighbourTable.of(sideLength);
+        this.cells = new byte[cellCount];
+        this.edgesOfX = new byte[cellCount];
+        this.edgesOfO = new byte[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            // X connects the north and the south edge, O the west and the east edge
+            edgesOfX[cell] = edges(cell / sideLength, sideLength);
+            edgesOfO[cell] = edges(cell % sideLength, sideLength);
+        }
+        this.voltagesOfX = new double[cellCount];
+        this.voltagesOfO = new double[cellCount];
+        this.trialVoltages = new double[cellCount];
+        Arrays.fill(voltagesOfX, START_VOLTAGE);
+        Arrays.fill(voltagesOfO, START_VOLTAGE);
+        this.moveScores = new double[cellCount];
+        this.leaders = new int[cellCount];
+        this.groupEdges = new int[cellCount];
+        this.groupNodes = new int[cellCount];
+        this.nodes = new int[cellCount];
+        this.reached = new boolean[cellCount];
+        this.stack = new int[cellCount];
+        this.memberStart = new int[cellCount + 1];
+        this.members = new int[cellCount];
+        this.rowStart = new int[cellCount + 1];
+        this.upperStart = new int[cellCount];
+        this.columns = new int[MAX_DEGREE * cellCount];
+        this.values = new double[MAX_DEGREE * cellCount];
+        this.diagonal = new double[cellCount];
+        this.sourceCurrents = new double[cellCount];
+        this.columnPositions = new int[cellCount];
+        this.columnRows = new int[cellCount];
+        this.factorDiagonal = new double[cellCount];
+        this.solution = new double[cellCount];
+        this.residual = new double[cellCount];
+        this.direction = new double[cellCount];
+        this.product = new double[cellCount];
+        this.preconditioned = new double[cellCount];
+    }
+
+    /**
+     * Takes over the tokens of a board of the same side length.
+     *
+     * @param board the board
+     */
+    public void load(BoardView board) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            cells[cell] = (byte) board.getEntry(cell).ordinal();
+        }
+    }
+
+    /**
+     * Sets the entry of a cell.
+     *
+     * @param index the index of the cell
+     * @param entry the entry, {@link Entry#EMPTY} to remove a token
+     */
+    public void set(int index, Entry entry) {
+        cells[index] = (byte) entry.ordinal();
+    }
+
+    /**
+     * Gets the resistance between both edges of a player.
+     *
+     * @param token the token of the player
+     * @return the resistance in ohm, {@link #CONNECTED} or {@link #CUT}
+     */
+    public double getResistance(Entry token) {
+        double[] voltages = token == Entry.X ? voltagesOfX : voltagesOfO;
+        return solve((byte) token.ordinal(), voltages, voltages);
+    }
+
+    /**
+     * Rates the position for a player by the natural logarithm of the resistance of the opponent divided by the
+     * resistance of the player, which is positive if the player is closer to connecting their edges.
+     *
+     * @param token the token of the player
+     * @return the rating, between the ratings of a cut and of a connection
+     */
+    public double evaluate(Entry token) {
+        double own = getResistance(token);
+        double opponent = getResistance(token == Entry.X ? Entry.O : Entry.X);
+        return rate(own, opponent);
+    }
+
+    /**
+     * Rates every empty cell by the position after the player placed a token on it, as by
+     * {@link #evaluate(Entry)}. Every trial move starts from the voltages of the current position, and a player whose
+     * network a move can't change isn't solved again.
+     *
+     * @param token  the token of the player
+     * @param scores the array the ratings are written to, negative infinity for occupied cells
+     */
+    public void scoreMoves(Entry token, double[] scores) {
+        scoreMoves(token, scores, Long.MAX_VALUE);
+    }
+
+    /**
+     * Rates every empty cell as by {@link #scoreMoves(Entry, double[])}, but stops once the deadline has passed.
+     *
+     * @param token    the token of the player
+     * @param scores   the array the ratings are written to, negative infinity for occupied cells
+     * @param deadline the {@link System#nanoTime()} to stop at
+     * @return true if every cell was rated, false if the ratings were stopped and are incomplete
+     */
+    public boolean scoreMoves(Entry token, double[] scores, long deadline) {
+        byte own = (byte) token.ordinal();
+        byte opponent = own == X ? O : X;
+        double[] ownVoltages = token == Entry.X ? voltagesOfX : voltagesOfO;
+        double[] opponentVoltages = token == Entry.X ? voltagesOfO : voltagesOfX;
+        double ownResistance = solve(own, ownVoltages, ownVoltages);
+        double opponentResistance = solve(opponent, opponentVoltages, opponentVoltages);
+        // no token changes a connection or a cut, and their voltages aren't solved
+        boolean ownFixed = ownResistance == CONNECTED || ownResistance == CUT;
+        boolean opponentFixed = opponentResistance == CONNECTED || opponentResistance == CUT;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cells[cell] != EMPTY) {
+                scores[cell] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            // a trial move solves up to two networks, which takes far longer than reading the time
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            cells[cell] = own;
+            // a cell outside the network of a player doesn't change their resistance
+            double ownTrial = ownFixed || ownVoltages[cell] < 0 ? ownResistance
+                    : solve(own, ownVoltages, trialVoltages);
+            double opponentTrial = opponentFixed || opponentVoltages[cell] < 0 ? opponentResistance
+                    : solve(opponent, opponentVoltages, trialVoltages);
+            cells[cell] = EMPTY;
+            scores[cell] = rate(ownTrial, opponentTrial);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the empty cell rated best by {@link #scoreMoves(Entry, double[])}.
+     *
+     * @param token the token of the player
+     * @return the index of the cell, or -1 if the board is full
+     */
+    public int getBestMove(Entry token) {
+        scoreMoves(token, moveScores);
+        int best = NO_MOVE;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cells[cell] == EMPTY && (best == NO_MOVE || moveScores[cell] > moveScores[best])) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    private static double rate(double own, double opponent) {
+        double clampedOwn = Math.max(MIN_RESISTANCE, Math.min(MAX_RESISTANCE, own));
+        double clampedOpponent = Math.max(MIN_RESISTANCE, Math.min(MAX_RESISTANCE, opponent));
+        return Math.log(clampedOpponent / clampedOwn);
+    }
+
+    private static byte edges(int coordinate, int sideLength) {
+        byte edges = 0;
+        if (coordinate == 0) {
+            edges |= SOURCE_EDGE;
+        }
+        if (coordinate == sideLength - 1) {
+            edges |= SINK_EDGE;
+        }
+        return edges;
+    }
+
+    /**
+     * Builds the network of a player, solves it and writes the voltages of the cells, a negative voltage for
+     * a cell outside the network.
+     *
+     * @param start  the voltages of the cells to start from
+     * @param result the array the voltages are written to, may be the start
+     * @return the resistance between the edges
+     */
+    private double solve(byte token, double[] start, double[] result) {
+        byte[] edgesOfCells = token == X ? edgesOfX : edgesOfO;
+        int state = buildNodes(token, edgesOfCells);
+        if (state != SINK) {
+            return state == SOURCE ? CONNECTED : CUT;
+        }
+        assemble(edgesOfCells);
+        for (int node = 0; node < nodeCount; node++) {
+            double voltage = start[members[memberStart[node]]];
+            // a cell that was outside the network before starts halfway
+            solution[node] = voltage < 0 || voltage > SOURCE_VOLTAGE ? START_VOLTAGE : voltage;
+        }
+        conjugateGradient();
+        for (int cell = 0; cell < cellCount; cell++) {
+            int node = nodes[cell];
+            if (node >= 0) {
+                result[cell] = solution[node];
+            } else if (node == SOURCE) {
+                result[cell] = SOURCE_VOLTAGE;
+            } else {
+                result[cell] = node == SINK ? 0 : OUTSIDE_VOLTAGE;
+            }
+        }
+        double current = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            current += sourceCurrents[node] * (SOURCE_VOLTAGE - solution[node]);
+        }
+        return current > 0 ? SOURCE_VOLTAGE / current : CUT;
+    }
+
+    /**
+     * Assigns every cell its node. A group of connected tokens of the player is contracted into one node, or belongs
+     * to the edge it touches. Every other cell that can be reached from the source edge is a node of its own,
+     * numbered row by row. All other cells are left out, which keeps every node connected to an edge and the matrix
+     * positive definite.
+     *
+     * @return SOURCE if the tokens connect both edges, BLOCKED if the sink edge can't be reached, otherwise SINK
+     */
+    private int buildNodes(byte token, byte[] edgesOfCells) {
+        Arrays.fill(leaders, NO_LEADER);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cells[cell] == token && leaders[cell] == NO_LEADER
+                    && fillGroup(token, cell, edgesOfCells) == BOTH_EDGES) {
+                return SOURCE;
+            }
+        }
+        // walks from the source edge through every cell that isn't blocked, but not beyond the sink edge
+        Arrays.fill(reached, false);
+        int size = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (cells[cell] == token ? (groupEdges[leaders[cell]] & SOURCE_EDGE) != 0
+                    : cells[cell] == EMPTY && (edgesOfCells[cell] & SOURCE_EDGE) != 0) {
+                reached[cell] = true;
+                stack[size++] = cell;
+            }
+        }
+        boolean sinkReached = false;
+        while (size > 0) {
+            int cell = stack[--size];
+            int edges = cells[cell] == token ? groupEdges[leaders[cell]] : edgesOfCells[cell];
+            if ((edges & SINK_EDGE) != 0) {
+                sinkReached = true;
+                if (cells[cell] == token) {
+                    continue;
+                }
+            }
+            for (int i = 0; i < neighbours.degree(cell); i++) {
+                int neighbour = neighbours.neighbour(cell, i);
+                if (!reached[neighbour] && (cells[neighbour] == token || cells[neighbour] == EMPTY)) {
+                    reached[neighbour] = true;
+                    stack[size++] = neighbour;
+                }
+            }
+        }
+        if (!sinkReached) {
+            return BLOCKED;
+        }
+        nodeCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            nodes[cell] = reached[cell] ? numberNode(token, cell) : BLOCKED;
+        }
+        // lists the cells of every node
+        Arrays.fill(memberStart, 0, nodeCount + 1, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (nodes[cell] >= 0) {
+                memberStart[nodes[cell] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            memberStart[node + 1] += memberStart[node];
+            columnPositions[node] = memberStart[node];
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (nodes[cell] >= 0) {
+                members[columnPositions[nodes[cell]]++] = cell;
+            }
+        }
+        return SINK;
+    }
+
+    /**
+     * Gives all tokens of a group the first of them as leader, and keeps the edges the group touches at the leader.
+     *
+     * @return the edges the group touches
+     */
+    private int fillGroup(byte token, int leader, byte[] edgesOfCells) {
+        int edges = 0;
+        leaders[leader] = leader;
+        stack[0] = leader;
+        int size = 1;
+        while (size > 0) {
+            int cell = stack[--size];
+            edges |= edgesOfCells[cell];
+            for (int i = 0; i < neighbours.degree(cell); i++) {
+                int neighbour = neighbours.neighbour(cell, i);
+                if (cells[neighbour] == token && leaders[neighbour] == NO_LEADER) {
+                    leaders[neighbour] = leader;
+                    stack[size++] = neighbour;
+                }
+            }
+        }
+        groupEdges[leader] = edges;
+        groupNodes[leader] = BLOCKED;
+        return edges;
+    }
+
+    /**
+     * Gets the node of a reached cell, numbering a new node for an empty cell or the first token of a group that
+     * touches no edge.
+     */
+    private int numberNode(byte token, int cell) {
+        if (cells[cell] != token) {
+            return nodeCount++;
+        }
+        int leader = leaders[cell];
+        if ((groupEdges[leader] & SOURCE_EDGE) != 0) {
+            return SOURCE;
+        }
+        if ((groupEdges[leader] & SINK_EDGE) != 0) {
+            return SINK;
+        }
+        if (groupNodes[leader] == BLOCKED) {
+            groupNodes[leader] = nodeCount++;
+        }
+        return groupNodes[leader];
+    }
+
+    /**
+     * Assembles the matrix of the conductances between the nodes and factorizes it. The row of a node collects the
+     * neighbours of all its cells, so the conductances of two cells next to the same node add up.
+     */
+    private void assemble(byte[] edgesOfCells) {
+        Arrays.fill(columnRows, 0, nodeCount, BLOCKED);
+        int position = 0;
+        for (int row = 0; row < nodeCount; row++) {
+            rowStart[row] = position;
+            double rowDiagonal = 0;
+            double rowSource = 0;
+            for (int member = memberStart[row]; member < memberStart[row + 1]; member++) {
+                int cell = members[member];
+                boolean empty = cells[cell] == EMPTY;
+                // tokens on an edge belong to the edge, so only empty cells are connected to it
+                if (empty && (edgesOfCells[cell] & SOURCE_EDGE) != 0) {
+                    rowDiagonal += TOKEN_CONDUCTANCE;
+                    rowSource += TOKEN_CONDUCTANCE;
+                }
+                if (empty && (edgesOfCells[cell] & SINK_EDGE) != 0) {
+                    rowDiagonal += TOKEN_CONDUCTANCE;
+                }
+                for (int i = 0; i < neighbours.degree(cell); i++) {
+                    int neighbour = neighbours.neighbour(cell, i);
+                    int column = nodes[neighbour];
+                    if (column == BLOCKED || column == row) {
+                        continue;
+                    }
+                    double conductance = empty && cells[neighbour] == EMPTY ? EMPTY_CONDUCTANCE : TOKEN_CONDUCTANCE;
+                    rowDiagonal += conductance;
+                    if (column == SOURCE) {
+                        rowSource += conductance;
+                    } else if (column >= 0) {
+                        if (columnRows[column] != row) {
+                            columnRows[column] = row;
+                            columnPositions[column] = position;
+                            columns[position] = column;
+                            values[position++] = 0;
+                        }
+                        values[columnPositions[column]] -= conductance;
+                    }
+                }
+            }
+            diagonal[row] = rowDiagonal;
+            sourceCurrents[row] = rowSource;
+            int upper = partition(row, position);
+            upperStart[row] = upper;
+            // the incomplete Cholesky factorization without fill, which keeps the entries off the diagonal
+            double pivot = rowDiagonal;
+            for (int entry = rowStart[row]; entry < upper; entry++) {
+                pivot -= values[entry] * values[entry] / factorDiagonal[columns[entry]];
+            }
+            factorDiagonal[row] = pivot;
+        }
+        rowStart[nodeCount] = position;
+    }
+
+    /**
+     * Moves the columns of a row below the diagonal to its front.
+     *
+     * @return the position of the first column above the diagonal
+     */
+    private int partition(int row, int end) {
+        int upper = rowStart[row];
+        for (int position = upper; position < end; position++) {
+            if (columns[position] < row) {
+                int column = columns[position];
+                double value = values[position];
+                columns[position] = columns[upper];
+                values[position] = values[upper];
+                columns[upper] = column;
+                values[upper++] = value;
+            }
+        }
+        return upper;
+    }
+
+    /**
+     * Solves the network for the voltages of its nodes by the preconditioned conjugate gradient method, starting from
+     * the voltages in the solution.
+     */
+    private void conjugateGradient() {
+        int count = nodeCount;
+        double[] x = solution;
+        double[] r = residual;
+        double[] p = direction;
+        double[] q = product;
+        double[] z = preconditioned;
+        double targetNorm = 0;
+        double residualNorm = 0;
+        multiply(x, q);
+        for (int row = 0; row < count; row++) {
+            r[row] = sourceCurrents[row] - q[row];
+            targetNorm += sourceCurrents[row] * sourceCurrents[row];
+            residualNorm += r[row] * r[row];
+        }
+        double tolerance = TOLERANCE * TOLERANCE * targetNorm;
+        if (residualNorm <= tolerance) {
+            return;
+        }
+        double rho = precondition();
+        System.arraycopy(z, 0, p, 0, count);
+        // the method is exact after as many steps as there are nodes, apart from rounding
+        for (int step = 0; step < count; step++) {
+            double stepLength = rho / multiply(p, q);
+            residualNorm = 0;
+            for (int row = 0; row < count; row++) {
+                x[row] += stepLength * p[row];
+                r[row] -= stepLength * q[row];
+                residualNorm += r[row] * r[row];
+            }
+            if (residualNorm <= tolerance) {
+                return;
+            }
+            double nextRho = precondition();
+            double ratio = nextRho / rho;
+            rho = nextRho;
+            for (int row = 0; row < count; row++) {
+                p[row] = z[row] + ratio * p[row];
+            }
+        }
+    }
+
+    /**
+     * Multiplies the matrix by a vector.
+     *
+     * @return the product of the vector and the result
+     */
+    private double multiply(double[] vector, double[] result) {
+        int[] starts = rowStart;
+        int[] columnsOfRows = columns;
+        double[] valuesOfRows = values;
+        double dot = 0;
+        for (int row = 0; row < nodeCount; row++) {
+            double sum = diagonal[row] * vector[row];
+            for (int position = starts[row]; position < starts[row + 1]; position++) {
+                sum += valuesOfRows[position] * vector[columnsOfRows[position]];
+            }
+            result[row] = sum;
+            dot += vector[row] * sum;
+        }
+        return dot;
+    }
+
+    /**
+     * Applies the incomplete factorization to the residual, substituting forward through the entries below the
+     * diagonal and backward through the entries above it.
+     *
+     * @return the product of the residual and the result
+     */
+    private double precondition() {
+        int[] starts = rowStart;
+        int[] uppers = upperStart;
+        int[] columnsOfRows = columns;
+        double[] valuesOfRows = values;
+        double[] z = preconditioned;
+        for (int row = 0; row < nodeCount; row++) {
+            double sum = residual[row];
+            for (int position = starts[row]; position < uppers[row]; position++) {
+                sum -= valuesOfRows[position] * z[columnsOfRows[position]];
+            }
+            z[row] = sum / factorDiagonal[row];
+        }
+        double dot = 0;
+        for (int row = nodeCount - 1; row >= 0; row--) {
+            double sum = 0;
+            for (int position = uppers[row]; position < starts[row + 1]; position++) {
+                sum += valuesOfRows[position] * z[columnsOfRows[position]];
+            }
+            z[row] -= sum / factorDiagonal[row];
+            dot += residual[row] * z[row];
+        }
+        return dot;
+    }
+
+}
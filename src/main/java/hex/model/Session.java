@@ -0,0 +1,181 @@
+package hex.model;
+
+import hex.model.entity.Player;
+
+/**
+ * This class represents a session of a {@link Hub}: a game together with the players of its own,
+ * whose tokens only change with the steps made in this game. A session is played by one thread at a time,
+ * while different sessions can be played on different threads at once.
+ * An idle session may be spilled to disk by its hub, then only its number of turns and whether it is won
+ * are kept in memory until the hub loads its game again.
+ *
+ * @author unxgx
+ */
+public final class Session {
+
+    // a rough estimate of the memory taken by a game without any token, its players and its input handler
+    private static final long BASE_BYTES = 4096;
+    // the pages of a board touched by a move, the union-find entries and the move itself
+    private static final long BYTES_PER_MOVE = 200;
+    // a board whose pages are all touched holds two bits and a union-find entry of each player per cell
+    private static final long BYTES_PER_CELL = 24;
+
+    private final int number;
+    private final String name;
+    private final Player playerOne;
+    private final Player playerTwo;
+    // the game of the session, null while it is spilled to disk
+    private volatile Hex game;
+    private int spilledTurn;
+    private boolean spilledGameWon;
+    private boolean started = false;
+    // a game is archived with its first win only, even if the win is undone and the game is won again
+    private boolean archived = false;
+
+    /**
+     * Instantiates a new session.
+     *
+     * @param number the number of the session, in the order the sessions were registered
+     * @param game   the game of the session
+     */
+    Session(int number, Hex game) {
+        this.number = number;
+        this.name = game.getName();
+        this.playerOne = game.getPlayer(0);
+        this.playerTwo = game.getPlayer(1);
+        this.game = game;
+    }
+
+    /**
+     * Gets the number of the session, in the order the sessions were registered, starting at 0.
+     *
+     * @return the number of the session
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * Gets the name of the session, which is the name of its game.
+     *
+     * @return the name of the session
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the game of the session.
+     *
+     * @return the game, or null if it is spilled to disk
+     */
+    public Hex getGame() {
+        return this.game;
+    }
+
+    /**
+     * Checks whether the game of the session is spilled to disk.
+     *
+     * @return true if the game is spilled, otherwise false
+     */
+    public boolean isSpilled() {
+        return this.game == null;
+    }
+
+    /**
+     * Gets the current turn number of the game, without loading a spilled game.
+     *
+     * @return the current turn number
+     */
+    public int getCurrentTurn() {
+        Hex current = this.game;
+        return current == null ? spilledTurn : current.getCurrentTurn();
+    }
+
+    /**
+     * Checks whether the game is won, without loading a spilled game.
+     *
+     * @return true if the game is won, otherwise false
+     */
+    public boolean isGameWon() {
+        Hex current = this.game;
+        return current == null ? spilledGameWon : current.isGameWon();
+    }
+
+    /**
+     * Gets a player of the session.
+     *
+     * @param index the index of the player, 0 for player one and 1 for player two
+     * @return the player
+     */
+    public Player getPlayer(int index) {
+        return index == 0 ? playerOne : playerTwo;
+    }
+
+    /**
+     * Checks whether the game was played on the console before, so it is greeted only once.
+     *
+     * @return true if the game was played on the console before, otherwise false
+     */
+    boolean isStarted() {
+        return this.started;
+    }
+
+    /**
+     * Marks the game as played on the console.
+     */
+    void start() {
+        this.started = true;
+    }
+
+    /**
+     * Checks whether the game was appended to the archive already.
+     *
+     * @return true if the game was archived, otherwise false
+     */
+    boolean isArchived() {
+        return this.archived;
+    }
+
+    /**
+     * Marks the game as appended to the archive.
+     */
+    void archive() {
+        this.archived = true;
+    }
+
+    /**
+     * Drops the game from memory after it was spilled to disk, keeping only what a list of the games shows.
+     */
+    void spill() {
+        this.spilledTurn = game.getCurrentTurn();
+        this.spilledGameWon = game.isGameWon();
+        this.game = null;
+    }
+
+    /**
+     * Takes back the game after it was loaded from disk.
+     *
+     * @param loadedGame the loaded game
+     */
+    void restore(Hex loadedGame) {
+        this.game = loadedGame;
+    }
+
+    /**
+     * Estimates the memory taken by the game of the session, which grows with the moves made
+     * until all pages of the board are touched.
+     *
+     * @return the estimated number of bytes, 0 if the game is spilled
+     */
+    long estimateBytes() {
+        Hex current = this.game;
+        if (current == null) {
+            return 0;
+        }
+        long cells = (long) current.getBoardView().getCellCount();
+        long moves = current.getCurrentTurn() + current.getRedoableSteps();
+        return BASE_BYTES + Math.min(moves * BYTES_PER_MOVE, cells * BYTES_PER_CELL);
+    }
+
+}
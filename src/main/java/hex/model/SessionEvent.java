@@ -0,0 +1,45 @@
+package hex.model;
+
+/**
+ * Represents the events of the sessions of a {@link Hub} which are written to its {@link SessionJournal}.
+ *
+ * @author unxgx
+ */
+enum SessionEvent {
+
+    /**
+     * A new game was created.
+     */
+    CREATE,
+
+    /**
+     * A saved game was loaded as a new game.
+     */
+    LOAD,
+
+    /**
+     * A token was placed.
+     */
+    PLACE,
+
+    /**
+     * The tokens were swapped.
+     */
+    SWAP,
+
+    /**
+     * The last step was taken back.
+     */
+    UNDO,
+
+    /**
+     * The last undone step was made again.
+     */
+    REDO,
+
+    /**
+     * Another game became the current game.
+     */
+    SWITCH
+
+}
@@ -0,0 +1,600 @@
+package hex.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents the write-ahead journal of the sessions of a {@link Hub}, so that the games in progress
+ * survive a crash. Every event is appended as a record of its length, its fields and a CRC-32 checksum.
+ * Events may be appended from several threads, and are only copied into a buffer by the game.
+ * A background thread writes the buffer and forces it to the disk, and all events arriving meanwhile are written
+ * together in the next batch, so a move never waits for the disk.
+ * A crash loses at most the events of the batches not yet forced.
+ * From time to time the state of all games is written into a snapshot, which replaces the journal.
+ * The snapshot holds every game with its undone steps made again and the number of these steps,
+ * so that the steps that can be redone survive as well.
+ * A snapshot carries a generation that the journal started afterwards also carries, so a journal left over by
+ * a crash during a snapshot is recognized and skipped. Opening the journal cuts off a record torn by a crash,
+ * and replaying it rebuilds the games from the snapshot and the events after it.
+ *
+ * @author unxgx
+ */
+public final class SessionJournal implements Closeable {
+
+    private static final String JOURNAL_FILE_EXTENSION = ".wal";
+    private static final String SNAPSHOT_FILE_EXTENSION = ".snap";
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    private static final byte[] JOURNAL_MAGIC = {'H', 'X', 'J'};
+    private static final byte[] SNAPSHOT_MAGIC = {'H', 'X', 'S'};
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 + 1 + Long.BYTES;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+    // the type, the game and the coordinates of an event
+    private static final int EVENT_BYTES = 1 + 3 * GameCodec.MAX_VARINT_BYTES;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 12;
+    // the number of events after which the games are written into a snapshot
+    private static final int SNAPSHOT_INTERVAL = 1 << 14;
+    private static final int NO_GAME = -1;
+    private static final SessionEvent[] EVENTS = SessionEvent.values();
+    private static final String FLUSHER_NAME = "session-journal";
+
+    private final Path snapshotFile;
+    private final Path temporaryFile;
+    private final FileChannel channel;
+    private final Object lock = new Object();
+    private final Thread flusher;
+    // the records not yet handed to the flusher, and the buffer the flusher writes from
+    private byte[] pending = new byte[INITIAL_BUFFER_SIZE];
+    private int pendingLength;
+    private byte[] flushing = new byte[INITIAL_BUFFER_SIZE];
+    // the number of bytes appended and the number of bytes forced to the disk so far
+    private long appended;
+    private long forced;
+    private long journalEnd;
+    private long generation;
+    private int eventsSinceSnapshot;
+    private boolean closed;
+    private IOException failure;
+    // what was read when opening, until it was replayed
+    private List<GameRecord> snapshotGames;
+    private int[] snapshotUndoneSteps;
+    private int snapshotCurrentGame;
+    private byte[] recoveredRecords;
+
+    private SessionJournal(Path snapshotFile, Path temporaryFile, FileChannel channel) {
+        this.snapshotFile = snapshotFile;
+        this.temporaryFile = temporaryFile;
+        this.channel = channel;
+        this.flusher = new Thread(this::flushBatches, FLUSHER_NAME);
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal with the given base path, whose files are named by the base path followed by
+     * {@code .wal} and {@code .snap}. Missing files are created. The games written into the journal
+     * are kept until they are replayed.
+     *
+     * @param basePath the path of the journal without the extensions of its files
+     * @return the opened journal
+     * @throws IOException              if the files can't be opened
+     * @throws InvalidGameDataException if the files don't belong to a journal
+     */
+    public static SessionJournal open(Path basePath) throws IOException, InvalidGameDataException {
+        Path journalFile = basePath.resolveSibling(basePath.getFileName() + JOURNAL_FILE_EXTENSION);
+        Path snapshotFile = basePath.resolveSibling(basePath.getFileName() + SNAPSHOT_FILE_EXTENSION);
+        Path temporaryFile = basePath.resolveSibling(basePath.getFileName() + SNAPSHOT_FILE_EXTENSION
+                + TEMPORARY_FILE_EXTENSION);
+        FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        SessionJournal journal = new SessionJournal(snapshotFile, temporaryFile, channel);
+        try {
+            journal.readSnapshot();
+            journal.readJournal();
+        } catch (IOException | InvalidGameDataException e) {
+            channel.close();
+            throw e;
+        }
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * Replays the games read when opening the journal, first the games of the snapshot and then the events
+     * after it. The games are only kept until they are replayed once.
+     *
+     * @param replay the receiver of the games and events
+     * @throws InvalidGameDataException if an event can't be replayed
+     */
+    void replay(Replay replay) throws InvalidGameDataException {
+        for (int i = 0; i < snapshotGames.size(); i++) {
+            replay.loaded(snapshotGames.get(i), snapshotUndoneSteps[i]);
+        }
+        if (snapshotCurrentGame != NO_GAME) {
+            replay.switched(snapshotCurrentGame);
+        }
+        GameCodec.Reader reader = new GameCodec.Reader(recoveredRecords, 0, recoveredRecords.length);
+        while (!reader.isAtEnd()) {
+            int length = reader.readVarint();
+            int end = reader.getPosition() + length;
+            replayEvent(reader.getPosition(), end, replay);
+            reader = new GameCodec.Reader(recoveredRecords, end + CHECKSUM_BYTES, recoveredRecords.length);
+        }
+        this.snapshotGames = List.of();
+        this.snapshotUndoneSteps = new int[0];
+        this.recoveredRecords = new byte[0];
+    }
+
+    /**
+     * Appends the creation of a new game.
+     *
+     * @param sideLength the side length of the board of the game
+     * @param name       the name of the game
+     */
+    void created(int sideLength, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] event = new byte[EVENT_BYTES + GameCodec.MAX_VARINT_BYTES + bytes.length];
+        event[0] = (byte) SessionEvent.CREATE.ordinal();
+        int length = GameCodec.writeVarint(event, 1, sideLength);
+        append(event, GameCodec.writeBytes(event, length, bytes));
+    }
+
+    /**
+     * Appends the loading of a saved game as a new game.
+     *
+     * @param game the loaded game
+     */
+    void loaded(Hex game) {
+        byte[] encoded = GameCodec.encode(game);
+        byte[] event = new byte[1 + encoded.length];
+        event[0] = (byte) SessionEvent.LOAD.ordinal();
+        System.arraycopy(encoded, 0, event, 1, encoded.length);
+        append(event, event.length);
+    }
+
+    /**
+     * Appends a step made in a game. Only the coordinates of a placed token are written.
+     *
+     * @param game        the index of the game, in the order the games were created or loaded
+     * @param step        the step
+     * @param xCoordinate the x-coordinate of the placed token
+     * @param yCoordinate the y-coordinate of the placed token
+     */
+    void stepMade(int game, SessionEvent step, int xCoordinate, int yCoordinate) {
+        byte[] event = new byte[EVENT_BYTES];
+        event[0] = (byte) step.ordinal();
+        int length = GameCodec.writeVarint(event, 1, game);
+        if (step == SessionEvent.PLACE) {
+            length = GameCodec.writeVarint(event, length, xCoordinate);
+            length = GameCodec.writeVarint(event, length, yCoordinate);
+        }
+        append(event, length);
+    }
+
+    /**
+     * Appends a switch to another game.
+     *
+     * @param game the index of the game, in the order the games were created or loaded
+     */
+    void switched(int game) {
+        byte[] event = new byte[EVENT_BYTES];
+        event[0] = (byte) SessionEvent.SWITCH.ordinal();
+        append(event, GameCodec.writeVarint(event, 1, game));
+    }
+
+    /**
+     * Checks whether enough events were appended since the last snapshot to write a new one.
+     *
+     * @return true if a snapshot is due, otherwise false
+     */
+    boolean isSnapshotDue() {
+        synchronized (lock) {
+            return eventsSinceSnapshot >= SNAPSHOT_INTERVAL;
+        }
+    }
+
+    /**
+     * Writes the state of all games into a new snapshot, which replaces the snapshot and the journal so far.
+     * The snapshot is written into a temporary file first, which then takes the place of the old snapshot at once.
+     *
+     * @param games       the games encoded by {@link GameCodec#encodeWithRedoableSteps(Hex)},
+     *                    in the order they were created or loaded
+     * @param currentGame the index of the current game, or -1 if there is none
+     */
+    void snapshot(List<byte[]> games, int currentGame) {
+        try {
+            awaitForced();
+            long nextGeneration = generation + 1;
+            writeSnapshot(games, currentGame, nextGeneration);
+            synchronized (channel) {
+                writeHeader(nextGeneration);
+                channel.force(true);
+            }
+            this.generation = nextGeneration;
+            synchronized (lock) {
+                this.eventsSinceSnapshot = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces all appended events to the disk, stops the background thread and closes the journal.
+     *
+     * @throws IOException if an event couldn't be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void append(byte[] event, int length) {
+        CRC32 checksum = new CRC32();
+        checksum.update(event, 0, length);
+        int crc = (int) checksum.getValue();
+        synchronized (lock) {
+            // gives error if an earlier batch couldn't be written, as the journal would have a gap
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            int needed = pendingLength + GameCodec.MAX_VARINT_BYTES + length + CHECKSUM_BYTES;
+            if (needed > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(needed, pending.length * 2));
+            }
+            int start = pendingLength;
+            int position = GameCodec.writeVarint(pending, pendingLength, length);
+            System.arraycopy(event, 0, pending, position, length);
+            position += length;
+            for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+                pending[position++] = (byte) (crc >>> shift);
+            }
+            pendingLength = position;
+            appended += position - start;
+            eventsSinceSnapshot++;
+            if (start == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes the pending records batch by batch until the journal is closed. While a batch is written and forced,
+     * the next batch gathers in the other buffer.
+     */
+    private void flushBatches() {
+        while (true) {
+            int length;
+            long target;
+            synchronized (lock) {
+                while (pendingLength == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pendingLength == 0) {
+                    return;
+                }
+                byte[] batch = pending;
+                pending = flushing;
+                flushing = batch;
+                length = pendingLength;
+                pendingLength = 0;
+                target = appended;
+            }
+            try {
+                synchronized (channel) {
+                    ByteBuffer buffer = ByteBuffer.wrap(flushing, 0, length);
+                    while (buffer.hasRemaining()) {
+                        journalEnd += channel.write(buffer, journalEnd);
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                forced = target;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void awaitForced() throws IOException {
+        synchronized (lock) {
+            while (forced < appended && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void writeSnapshot(List<byte[]> games, int currentGame, long nextGeneration) throws IOException {
+        int capacity = HEADER_BYTES + 2 * GameCodec.MAX_VARINT_BYTES + CHECKSUM_BYTES;
+        for (byte[] game : games) {
+            capacity += game.length;
+        }
+        byte[] data = new byte[capacity];
+        int position = writeHeader(data, SNAPSHOT_MAGIC, nextGeneration);
+        position = GameCodec.writeVarint(data, position, games.size());
+        // the current game is written shifted by one, so that no current game is written as zero
+        position = GameCodec.writeVarint(data, position, currentGame + 1);
+        for (byte[] game : games) {
+            System.arraycopy(game, 0, data, position, game.length);
+            position += game.length;
+        }
+        CRC32 snapshotChecksum = new CRC32();
+        snapshotChecksum.update(data, 0, position);
+        int crc = (int) snapshotChecksum.getValue();
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            data[position++] = (byte) (crc >>> shift);
+        }
+        try (FileChannel snapshot = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 0, position);
+            while (buffer.hasRemaining()) {
+                snapshot.write(buffer);
+            }
+            snapshot.force(true);
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void readSnapshot() throws IOException, InvalidGameDataException {
+        this.snapshotGames = List.of();
+        this.snapshotUndoneSteps = new int[0];
+        this.snapshotCurrentGame = NO_GAME;
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        byte[] data = Files.readAllBytes(snapshotFile);
+        int end = data.length - CHECKSUM_BYTES;
+        // gives error if the snapshot is too short or was damaged, it was written completely before it was used
+        if (end < HEADER_BYTES) {
+            throw new InvalidGameDataException();
+        }
+        CRC32 snapshotChecksum = new CRC32();
+        snapshotChecksum.update(data, 0, end);
+        if (ByteBuffer.wrap(data, end, CHECKSUM_BYTES).getInt() != (int) snapshotChecksum.getValue()) {
+            throw new InvalidGameDataException();
+        }
+        this.generation = readHeader(data, SNAPSHOT_MAGIC);
+        GameCodec.Reader reader = new GameCodec.Reader(data, HEADER_BYTES, end);
+        int count = reader.readVarint();
+        int currentGame = reader.readVarint() - 1;
+        // gives error if the current game isn't one of the games, or if there are fewer bytes left than games
+        if (currentGame >= count || count > reader.remaining()) {
+            throw new InvalidGameDataException();
+        }
+        GameRecord[] games = new GameRecord[count];
+        int[] undoneSteps = new int[count];
+        for (int i = 0; i < count; i++) {
+            undoneSteps[i] = reader.readVarint();
+            int length = reader.readVarint();
+            int start = reader.getPosition();
+            // gives error if the game reaches beyond the snapshot
+            if (length > end - start) {
+                throw new InvalidGameDataException();
+            }
+            games[i] = GameCodec.decode(Arrays.copyOfRange(data, start, start + length));
+            reader = new GameCodec.Reader(data, start + length, end);
+        }
+        if (!reader.isAtEnd()) {
+            throw new InvalidGameDataException();
+        }
+        this.snapshotGames = List.of(games);
+        this.snapshotUndoneSteps = undoneSteps;
+        this.snapshotCurrentGame = currentGame;
+    }
+
+    /**
+     * Reads the records of the journal up to the first one that is torn or damaged, which is cut off with all
+     * following bytes. A journal older than the snapshot is emptied, its events are part of the snapshot.
+     */
+    private void readJournal() throws IOException, InvalidGameDataException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            writeHeader(generation);
+            this.recoveredRecords = new byte[0];
+            return;
+        }
+        // gives error if the journal is too large to be a journal of this game
+        if (size > Integer.MAX_VALUE) {
+            throw new InvalidGameDataException();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // reads until the buffer is full
+        }
+        byte[] data = buffer.array();
+        long journalGeneration = readHeader(data, JOURNAL_MAGIC);
+        // gives error if the journal is newer than the snapshot, which means the snapshot is missing
+        if (journalGeneration > generation) {
+            throw new InvalidGameDataException();
+        }
+        if (journalGeneration < generation) {
+            writeHeader(generation);
+            this.recoveredRecords = new byte[0];
+            return;
+        }
+        int valid = HEADER_BYTES;
+        int records = 0;
+        CRC32 recordChecksum = new CRC32();
+        while (valid < data.length) {
+            GameCodec.Reader reader = new GameCodec.Reader(data, valid, data.length);
+            int length;
+            try {
+                length = reader.readVarint();
+            } catch (InvalidGameDataException e) {
+                break;
+            }
+            int start = reader.getPosition();
+            if (length > data.length - start - CHECKSUM_BYTES) {
+                break;
+            }
+            recordChecksum.reset();
+            recordChecksum.update(data, start, length);
+            if (ByteBuffer.wrap(data, start + length, CHECKSUM_BYTES).getInt() != (int) recordChecksum.getValue()) {
+                break;
+            }
+            valid = start + length + CHECKSUM_BYTES;
+            records++;
+        }
+        channel.truncate(valid);
+        this.journalEnd = valid;
+        this.eventsSinceSnapshot = records;
+        this.recoveredRecords = Arrays.copyOfRange(data, HEADER_BYTES, valid);
+    }
+
+    private void replayEvent(int start, int end, Replay replay) throws InvalidGameDataException {
+        GameCodec.Reader reader = new GameCodec.Reader(recoveredRecords, start, end);
+        int type = reader.readByte();
+        // gives error if the event is unknown
+        if (type >= EVENTS.length) {
+            throw new InvalidGameDataException();
+        }
+        SessionEvent event = EVENTS[type];
+        switch (event) {
+            case CREATE:
+                int sideLength = reader.readVarint();
+                // gives error if a new game can't have the side length
+                if (!GameCodec.isLegalSideLength(sideLength)) {
+                    throw new InvalidGameDataException();
+                }
+                replay.created(sideLength, reader.readString());
+                break;
+            case LOAD:
+                // the rest of the event is the encoded game
+                replay.loaded(GameCodec.decode(Arrays.copyOfRange(recoveredRecords, reader.getPosition(), end)), 0);
+                return;
+            case PLACE:
+                int game = reader.readVarint();
+                int xCoordinate = reader.readVarint();
+                replay.stepMade(game, event, xCoordinate, reader.readVarint());
+                break;
+            case SWITCH:
+                replay.switched(reader.readVarint());
+                break;
+            default:
+                replay.stepMade(reader.readVarint(), event, 0, 0);
+                break;
+        }
+        // gives error if the event holds more than its fields
+        if (!reader.isAtEnd()) {
+            throw new InvalidGameDataException();
+        }
+    }
+
+    private void writeHeader(long nextGeneration) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        writeHeader(header, JOURNAL_MAGIC, nextGeneration);
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        channel.truncate(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        this.journalEnd = HEADER_BYTES;
+    }
+
+    private static int writeHeader(byte[] data, byte[] magic, long nextGeneration) {
+        System.arraycopy(magic, 0, data, 0, magic.length);
+        data[magic.length] = VERSION;
+        ByteBuffer.wrap(data, magic.length + 1, Long.BYTES).putLong(nextGeneration);
+        return HEADER_BYTES;
+    }
+
+    private static long readHeader(byte[] data, byte[] magic) throws InvalidGameDataException {
+        // gives error if the file isn't a file of a journal or has an unknown version
+        for (int i = 0; i < magic.length; i++) {
+            if (data[i] != magic[i]) {
+                throw new InvalidGameDataException();
+            }
+        }
+        if (data[magic.length] != VERSION) {
+            throw new InvalidGameDataException();
+        }
+        return ByteBuffer.wrap(data, magic.length + 1, Long.BYTES).getLong();
+    }
+
+    /**
+     * A receiver of the games and events replayed from a journal. The games are numbered in the order they
+     * are created or loaded, starting at 0.
+     */
+    interface Replay {
+
+        /**
+         * Is called for a created game.
+         *
+         * @param sideLength the side length of the board of the game
+         * @param name       the name of the game
+         * @throws InvalidGameDataException if the game can't be created
+         */
+        void created(int sideLength, String name) throws InvalidGameDataException;
+
+        /**
+         * Is called for a loaded game and for every game of the snapshot.
+         *
+         * @param game        the record of the game
+         * @param undoneSteps the number of steps to take back after replaying the game
+         * @throws InvalidGameDataException if the game can't be loaded
+         */
+        void loaded(GameRecord game, int undoneSteps) throws InvalidGameDataException;
+
+        /**
+         * Is called for a step made in a game.
+         *
+         * @param game        the index of the game
+         * @param event       the step
+         * @param xCoordinate the x-coordinate of a placed token
+         * @param yCoordinate the y-coordinate of a placed token
+         * @throws InvalidGameDataException if the step can't be made
+         */
+        void stepMade(int game, SessionEvent event, int xCoordinate, int yCoordinate) throws InvalidGameDataException;
+
+        /**
+         * Is called for a switch to another game.
+         *
+         * @param game the index of the game
+         * @throws InvalidGameDataException if there is no such game
+         */
+        void switched(int game) throws InvalidGameDataException;
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package hex.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents a thread-safe registry of sessions, which finds a session by its name or by its game
+ * without any lock. A session is found by its game only while the game is held in memory.
+ * Only registering a session is serialized, so that the sessions are numbered in the order they were registered
+ * without gaps.
+ *
+ * @author unxgx
+ */
+public final class SessionRegistry {
+
+    private final Map<String, Session> sessionsByName = new ConcurrentHashMap<>();
+    private final Map<Hex, Session> sessionsByGame = new ConcurrentHashMap<>();
+    // the sessions in the order they were registered, only changed and read while holding this registry
+    private final List<Session> sessions = new ArrayList<>();
+
+    /**
+     * Registers a game as a new session, unless there is a session with the same name already.
+     *
+     * @param game the game of the session
+     * @return the new session, or null if the name is already used
+     */
+    synchronized Session register(Hex game) {
+        Session session = new Session(sessions.size(), game);
+        if (sessionsByName.putIfAbsent(game.getName(), session) != null) {
+            return null;
+        }
+        sessionsByGame.put(game, session);
+        sessions.add(session);
+        return session;
+    }
+
+    /**
+     * Gets the session with the given name.
+     *
+     * @param name the name of the session
+     * @return the session, or null if there is none
+     */
+    public Session get(String name) {
+        return sessionsByName.get(name);
+    }
+
+    /**
+     * Gets the session of a game.
+     *
+     * @param game the game of the session
+     * @return the session, or null if the game belongs to no session
+     */
+    public Session get(Hex game) {
+        return sessionsByGame.get(game);
+    }
+
+    /**
+     * Gets the number of sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessionsByName.size();
+    }
+
+    /**
+     * Gets all sessions in the order they were registered.
+     *
+     * @return an unmodifiable copy of the list of sessions
+     */
+    public synchronized List<Session> getSessions() {
+        return Collections.unmodifiableList(new ArrayList<>(sessions));
+    }
+
+    /**
+     * Forgets the game of a session that was spilled to disk.
+     *
+     * @param game the spilled game
+     */
+    void unbind(Hex game) {
+        sessionsByGame.remove(game);
+    }
+
+    /**
+     * Finds a session by the game it got back when its game was loaded from disk.
+     *
+     * @param session the session
+     * @param game    the loaded game
+     */
+    void bind(Session session, Hex game) {
+        sessionsByGame.put(game, session);
+    }
+
+}
@@ -0,0 +1,111 @@
+package hex.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class represents a directory idle sessions are spilled to, so that their games don't take up memory.
+ * Every spilled game is kept in a file of its own, named by the number of its session, and encoded together with
+ * the steps that were undone and can be redone, just like in a snapshot of a {@link SessionJournal}.
+ * The files are only a cache of the games in memory: a game is deleted from the directory as soon as it is loaded,
+ * and the remaining games are deleted when the directory is closed.
+ *
+ * @author unxgx
+ */
+public final class SessionSpill implements Closeable {
+
+    private static final String FILE_EXTENSION = ".hxs";
+    private static final String FILE_PATTERN = "*" + FILE_EXTENSION;
+
+    private final Path directory;
+
+    private SessionSpill(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the directory to spill sessions to. A missing directory is created, games left over in it are deleted.
+     *
+     * @param directory the directory
+     * @return the opened directory
+     * @throws IOException if the directory can't be created or cleaned up
+     */
+    public static SessionSpill open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        SessionSpill spill = new SessionSpill(directory);
+        spill.deleteGames();
+        return spill;
+    }
+
+    /**
+     * Writes the game of a session into the directory.
+     *
+     * @param session the session whose game to write
+     * @throws IOException if the game can't be written
+     */
+    void write(Session session) throws IOException {
+        Files.write(fileOf(session), GameCodec.encodeWithRedoableSteps(session.getGame()));
+    }
+
+    /**
+     * Reads the encoded game of a spilled session, without loading it.
+     *
+     * @param session the spilled session
+     * @return the game encoded by {@link GameCodec#encodeWithRedoableSteps(Hex)}
+     * @throws IOException if the game can't be read
+     */
+    byte[] read(Session session) throws IOException {
+        return Files.readAllBytes(fileOf(session));
+    }
+
+    /**
+     * Loads the game of a spilled session with the players of the session and deletes it from the directory.
+     *
+     * @param session the spilled session
+     * @return the loaded game
+     * @throws IOException              if the game can't be read
+     * @throws InvalidGameDataException if the file doesn't hold a valid game
+     */
+    Hex load(Session session) throws IOException, InvalidGameDataException {
+        byte[] data = read(session);
+        GameCodec.Reader reader = new GameCodec.Reader(data, 0, data.length);
+        int undoneSteps = reader.readVarint();
+        int length = reader.readVarint();
+        int start = reader.getPosition();
+        // gives error if the game doesn't fill up the rest of the file
+        if (length != data.length - start) {
+            throw new InvalidGameDataException();
+        }
+        GameRecord record = GameCodec.decode(Arrays.copyOfRange(data, start, data.length));
+        Hex game = Hub.rebuild(record, undoneSteps, session.getPlayer(0), session.getPlayer(1));
+        Files.delete(fileOf(session));
+        return game;
+    }
+
+    /**
+     * Deletes the games left in the directory.
+     *
+     * @throws IOException if a game can't be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        deleteGames();
+    }
+
+    private void deleteGames() throws IOException {
+        try (DirectoryStream<Path> games = Files.newDirectoryStream(directory, FILE_PATTERN)) {
+            for (Path game : games) {
+                Files.delete(game);
+            }
+        }
+    }
+
+    private Path fileOf(Session session) {
+        return directory.resolve(session.getNumber() + FILE_EXTENSION);
+    }
+
+}
@@ -0,0 +1,200 @@
+package hex.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * This class stores the cells of a {@link Board} with only few tokens in an open-addressing hash table,
+ * which maps the index of every cell holding a token to its code and leaves out the empty cells,
+ * so its memory depends on the number of tokens and not on the size of the board.
+ * Once the tokens take up a noticeable share of the board, the cells are moved to {@link PackedCells},
+ * which are smaller by then, and stay there.
+ *
+ * @author unxgx
+ */
+final class SparseCells implements CellStorage {
+
+    // a slot without a key, no cell has a negative index
+    private static final int FREE = -1;
+    private static final int MIN_CAPACITY = 16;
+    // the table is grown once three quarters of its slots are taken
+    private static final int LOAD_NUMERATOR = 3;
+    private static final int LOAD_DENOMINATOR = 4;
+    // the share of the board above which packed cells need less memory than the table
+    private static final int PROMOTION_DIVISOR = 32;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final int size;
+    private final int promotionThreshold;
+    private int[] keys;
+    private byte[] codes;
+    // the home slot of a key is taken from the highest bits of its product with the golden ratio
+    private int hashShift;
+    private int count;
+    // the packed cells the tokens were moved to, otherwise null
+    private PackedCells dense;
+
+    /**
+     * Instantiates new sparse cells, all of them empty.
+     *
+     * @param size the number of cells
+     */
+    SparseCells(int size) {
+        this.size = size;
+        this.promotionThreshold = Math.max(MIN_CAPACITY, size / PROMOTION_DIVISOR);
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs sparse cells holding the same tokens as existing ones.
+     *
+     * @param cells the cells to copy
+     */
+    private SparseCells(SparseCells cells) {
+        this.size = cells.size;
+        this.promotionThreshold = cells.promotionThreshold;
+        this.count = cells.count;
+        if (cells.dense != null) {
+            this.dense = cells.dense.copy();
+        } else {
+            this.keys = cells.keys.clone();
+            this.codes = cells.codes.clone();
+            this.hashShift = cells.hashShift;
+        }
+    }
+
+    @Override
+    public int get(int index) {
+        if (dense != null) {
+            return dense.get(index);
+        }
+        int slot = find(index);
+        return keys[slot] == FREE ? Entry.EMPTY.ordinal() : codes[slot];
+    }
+
+    @Override
+    public void set(int index, int code) {
+        if (dense != null) {
+            dense.set(index, code);
+            return;
+        }
+        int slot = find(index);
+        if (keys[slot] != FREE) {
+            if (code == Entry.EMPTY.ordinal()) {
+                remove(slot);
+            } else {
+                codes[slot] = (byte) code;
+            }
+            return;
+        }
+        if (code == Entry.EMPTY.ordinal()) {
+            return;
+        }
+        keys[slot] = index;
+        codes[slot] = (byte) code;
+        count++;
+        if (count > promotionThreshold) {
+            promote();
+        } else if (count * LOAD_DENOMINATOR > keys.length * LOAD_NUMERATOR) {
+            resize(keys.length * 2);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void forEachToken(IntConsumer action) {
+        if (dense != null) {
+            dense.forEachToken(action);
+            return;
+        }
+        for (int key : keys) {
+            if (key != FREE) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of these cells, which takes time in the number of tokens as long as they aren't packed.
+     *
+     * @return a copy of these cells
+     */
+    @Override
+    public SparseCells copy() {
+        return new SparseCells(this);
+    }
+
+    /**
+     * Finds the slot holding the index, or the free slot where it belongs, by linear probing.
+     */
+    private int find(int index) {
+        int mask = keys.length - 1;
+        int slot = home(index);
+        while (keys[slot] != FREE && keys[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties a slot and moves back the following keys of its probe sequence, so that no key is
+     * separated from its home slot by a free slot. This needs no tombstones.
+     */
+    private void remove(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = home(keys[next]);
+            // the key may move into the free slot if that lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                codes[free] = codes[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = FREE;
+        count--;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        byte[] oldCodes = codes;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                codes[slot] = oldCodes[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, FREE);
+        codes = new byte[capacity];
+        hashShift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int home(int index) {
+        return (index * GOLDEN_RATIO) >>> hashShift;
+    }
+
+    private void promote() {
+        dense = new PackedCells(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                dense.set(keys[i], codes[i]);
+            }
+        }
+        keys = null;
+        codes = null;
+    }
+
+}
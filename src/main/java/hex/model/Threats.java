@@ -0,0 +1,85 @@
+package hex.model;
+
+import java.util.BitSet;
+
+/**
+ * This class represents the threats on a game board: every empty cell which, when filled with a token,
+ * would connect both poles of that token. The threats of both players are found together in a single pass
+ * over the tokens from the connected groups of tokens and the poles they touch, without trying any move.
+ * Threats are immutable, they describe the board at the time they were found.
+ *
+ * @author unxgx
+ */
+public final class Threats {
+
+    private static final int NO_INDEX = -1;
+
+    private final BitSet winningCellsOfX;
+    private final BitSet winningCellsOfO;
+
+    /**
+     * Instantiates new threats.
+     *
+     * @param winningCellsOfX the indices of the cells completing a connection for X
+     * @param winningCellsOfO the indices of the cells completing a connection for O
+     */
+    Threats(BitSet winningCellsOfX, BitSet winningCellsOfO) {
+        this.winningCellsOfX = winningCellsOfX;
+        this.winningCellsOfO = winningCellsOfO;
+    }
+
+    /**
+     * Gets the lowest index of a cell that, when filled with the specified token, would result in a win.
+     *
+     * @param token The token (X or O) to check for a winning move.
+     * @return The index of the winning move, or -1 if there is none.
+     */
+    public int getFirst(Entry token) {
+        BitSet cells = cellsOf(token);
+        return cells == null ? NO_INDEX : cells.nextSetBit(0);
+    }
+
+    /**
+     * Checks if filling the cell with the specified index with the specified token would result in a win.
+     *
+     * @param index The index of the cell.
+     * @param token The token (X or O) to check for.
+     * @return True if the cell is a winning move for the token, otherwise false.
+     */
+    public boolean isWinning(int index, Entry token) {
+        BitSet cells = cellsOf(token);
+        return cells != null && cells.get(index);
+    }
+
+    /**
+     * Gets the number of cells that, when filled with the specified token, would result in a win.
+     *
+     * @param token The token (X or O) to count the winning moves of.
+     * @return The number of winning moves.
+     */
+    public int count(Entry token) {
+        BitSet cells = cellsOf(token);
+        return cells == null ? 0 : cells.cardinality();
+    }
+
+    /**
+     * Gets the indices of all cells that, when filled with the specified token, would result in a win.
+     *
+     * @param token The token (X or O) to get the winning moves of.
+     * @return A new set of the indices of the winning moves.
+     */
+    public BitSet getCells(Entry token) {
+        BitSet cells = cellsOf(token);
+        return cells == null ? new BitSet() : (BitSet) cells.clone();
+    }
+
+    private BitSet cellsOf(Entry token) {
+        if (token == Entry.X) {
+            return winningCellsOfX;
+        } else if (token == Entry.O) {
+            return winningCellsOfO;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,181 @@
+package hex.model;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a disjoint-set forest over the cells of a {@link Board} and some virtual nodes,
+ * used to keep track of connected groups of tokens while they are placed.
+ * The parents are stored in pages of a primitive array, which are only allocated once a node of that page
+ * takes part in a union, so a large board with few tokens only pays for the pages it touches.
+ * The pages are kept in a {@link PageTrie}, so a copy is made in constant time and shares the pages until they change.
+ * Sets are merged by rank alone, which keeps the trees of logarithmic height without compressing paths,
+ * so finding never writes and every union writes at most two nodes. These writes are kept in a journal,
+ * which allows to take back the latest unions in time linear in their number.
+ *
+ * @author unxgx
+ */
+final class UnionFind {
+
+    private static final int MAX_PAGE_SHIFT = 12;
+    private static final int INITIAL_JOURNAL_CAPACITY = 16;
+    private static final long VALUE_MASK = (1L << Integer.SIZE) - 1;
+
+    private final int size;
+    private final int pageShift;
+    private final int pageMask;
+    // a stored value v > 0 points to the parent v - 1, a value v <= 0 marks a root of rank -v
+    private final PageTrie<int[]> pages;
+    // the previous values of the written nodes, each packed as node << 32 | value, the latest last
+    private long[] journal;
+    private int journalSize;
+
+    /**
+     * Instantiates a new disjoint-set forest, in which every node is a set on its own.
+     *
+     * @param size the number of nodes
+     */
+    UnionFind(int size) {
+        this.size = size;
+        // small boards fit into a single page, which is not larger than the board
+        this.pageShift = Math.min(MAX_PAGE_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 0)));
+        this.pageMask = (1 << pageShift) - 1;
+        int pageSize = 1 << pageShift;
+        this.pages = new PageTrie<>((size + pageSize - 1) >>> pageShift, () -> new int[pageSize], int[]::clone);
+        this.journal = new long[INITIAL_JOURNAL_CAPACITY];
+    }
+
+    /**
+     * Constructs a disjoint-set forest sharing the pages of an existing one. The copy starts with an empty journal.
+     *
+     * @param unionFind the forest to copy
+     */
+    private UnionFind(UnionFind unionFind) {
+        this.size = unionFind.size;
+        this.pageShift = unionFind.pageShift;
+        this.pageMask = unionFind.pageMask;
+        this.pages = unionFind.pages.copy();
+        this.journal = new long[INITIAL_JOURNAL_CAPACITY];
+    }
+
+    /**
+     * Finds the representative of the set containing the given node.
+     *
+     * @param node the node
+     * @return the representative of its set
+     */
+    int find(int node) {
+        int current = node;
+        int value = read(current);
+        while (value > 0) {
+            current = value - 1;
+            value = read(current);
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets containing the two given nodes.
+     *
+     * @param first  the first node
+     * @param second the second node
+     */
+    void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+        int firstRank = -read(firstRoot);
+        int secondRank = -read(secondRoot);
+        if (firstRank < secondRank) {
+            write(firstRoot, secondRoot + 1);
+        } else {
+            write(secondRoot, firstRoot + 1);
+            if (firstRank == secondRank) {
+                write(firstRoot, -(firstRank + 1));
+            }
+        }
+    }
+
+    /**
+     * Checks if the two given nodes belong to the same set.
+     *
+     * @param first  the first node
+     * @param second the second node
+     * @return true if both nodes are in the same set, otherwise false
+     */
+    boolean connected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    /**
+     * Splits all sets again, so that every node is a set on its own. The journal is emptied.
+     */
+    void clear() {
+        pages.clear();
+        journalSize = 0;
+    }
+
+    /**
+     * Gets a mark of the current state, which can be restored by {@link #rollback(int)}
+     * as long as the journal isn't emptied.
+     *
+     * @return the mark of the current state
+     */
+    int mark() {
+        return this.journalSize;
+    }
+
+    /**
+     * Takes back all unions made after the mark was taken.
+     *
+     * @param mark the mark of the state to restore
+     */
+    void rollback(int mark) {
+        while (journalSize > mark) {
+            long entry = journal[--journalSize];
+            int node = (int) (entry >>> Integer.SIZE);
+            pages.write(node >>> pageShift)[node & pageMask] = (int) entry;
+        }
+    }
+
+    /**
+     * Empties the journal, after which the current unions can't be taken back anymore.
+     */
+    void forget() {
+        journalSize = 0;
+    }
+
+    /**
+     * Gets the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Creates a copy of this forest in constant time.
+     *
+     * @return a copy of this forest
+     */
+    UnionFind copy() {
+        return new UnionFind(this);
+    }
+
+    private int read(int node) {
+        int[] page = pages.read(node >>> pageShift);
+        return page == null ? 0 : page[node & pageMask];
+    }
+
+    private void write(int node, int value) {
+        int[] page = pages.write(node >>> pageShift);
+        if (journalSize == journal.length) {
+            journal = Arrays.copyOf(journal, journalSize * 2);
+        }
+        journal[journalSize++] = ((long) node << Integer.SIZE) | (page[node & pageMask] & VALUE_MASK);
+        page[node & pageMask] = value;
+    }
+
+}
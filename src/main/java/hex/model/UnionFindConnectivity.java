@@ -0,0 +1,265 @@
+package hex.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class decides connections with one disjoint-set forest per player, updated incrementally whenever a token is
+ * placed. Each forest holds the cells and two virtual nodes for the poles of its player, so both poles share a set
+ * exactly if the player has connected them.
+ * Removing the token placed last takes back its unions from the journal of the forest, in time independent of the
+ * size of the board. Removing any other token can split a group, which a forest can't express; the forest is then
+ * rebuilt from the cells the next time it is needed.
+ *
+ * @author unxgx
+ */
+final class UnionFindConnectivity implements Connectivity {
+
+    private static final Entry[] ENTRIES = Entry.values();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final CellStorage cells;
+    private final NeighbourTable neighbours;
+    private final int sideLength;
+    private final int firstPole;
+    private final int secondPole;
+    // connected groups of X tokens with the north and south pole as virtual nodes
+    private final UnionFind groupsOfX;
+    // connected groups of O tokens with the west and east pole as virtual nodes
+    private final UnionFind groupsOfO;
+    private boolean groupsOfXOutdated;
+    private boolean groupsOfOOutdated;
+    // the tokens whose unions can be taken back, the latest last, with the journal mark of their forest before them
+    private int[] placedCells;
+    private int[] placedMarks;
+    private int placedCount;
+
+    /**
+     * Instantiates a new union-find connectivity for empty cells.
+     *
+     * @param cells      the cells of the board
+     * @param neighbours the neighbour table of the board
+     */
+    UnionFindConnectivity(CellStorage cells, NeighbourTable neighbours) {
+        this.cells = cells;
+        this.neighbours = neighbours;
+        this.sideLength = neighbours.getSideLength();
+        this.firstPole = cells.size();
+        this.secondPole = firstPole + 1;
+        this.groupsOfX = new UnionFind(secondPole + 1);
+        this.groupsOfO = new UnionFind(secondPole + 1);
+        this.placedCells = new int[INITIAL_CAPACITY];
+        this.placedMarks = new int[INITIAL_CAPACITY];
+    }
+
+    private UnionFindConnectivity(UnionFindConnectivity connectivity, CellStorage cells) {
+        this.cells = cells;
+        this.neighbours = connectivity.neighbours;
+        this.sideLength = connectivity.sideLength;
+        this.firstPole = connectivity.firstPole;
+        this.secondPole = connectivity.secondPole;
+        this.groupsOfX = connectivity.groupsOfX.copy();
+        this.groupsOfO = connectivity.groupsOfO.copy();
+        this.groupsOfXOutdated = connectivity.groupsOfXOutdated;
+        this.groupsOfOOutdated = connectivity.groupsOfOOutdated;
+        // the copied forests start with empty journals, so their tokens can't be taken back
+        this.placedCells = new int[INITIAL_CAPACITY];
+        this.placedMarks = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void changed(int index, int previous, int code) {
+        if (code == Entry.EMPTY.ordinal() && placedCount > 0 && placedCells[placedCount - 1] == index) {
+            // the token placed last is taken back
+            placedCount--;
+            groupsOf(previous).rollback(placedMarks[placedCount]);
+            return;
+        }
+        if (previous == Entry.EMPTY.ordinal()) {
+            // an outdated forest picks up the token when it is rebuilt
+            if (!isOutdated(code)) {
+                UnionFind groups = groupsOf(code);
+                push(index, groups.mark());
+                connect(index, ENTRIES[code], groups);
+            }
+            return;
+        }
+        // any other change can't be taken back anymore and invalidates all marks
+        placedCount = 0;
+        groupsOfX.forget();
+        groupsOfO.forget();
+        if (previous == Entry.X.ordinal()) {
+            groupsOfXOutdated = true;
+        } else if (previous == Entry.O.ordinal()) {
+            groupsOfOOutdated = true;
+        }
+        if (code != Entry.EMPTY.ordinal() && !isOutdated(code)) {
+            connect(index, ENTRIES[code], groupsOf(code));
+        }
+    }
+
+    @Override
+    public boolean connects(Entry token) {
+        return getGroups(token).connected(firstPole, secondPole);
+    }
+
+    /**
+     * Finds the winning cells among the empty cells next to a group touching a pole and, once a player has connected
+     * the poles or the board has a single line, the empty cells on the poles. No other cell can join both poles,
+     * so the time depends on the number of tokens and not on the size of the board.
+     */
+    @Override
+    public void findWinningCells(BitSet winningCellsOfX, BitSet winningCellsOfO) {
+        UnionFind groupsOfX = getGroups(Entry.X);
+        UnionFind groupsOfO = getGroups(Entry.O);
+        findWinningPoleCells(Entry.X, groupsOfX, winningCellsOfX);
+        findWinningPoleCells(Entry.O, groupsOfO, winningCellsOfO);
+        cells.forEachToken(index -> {
+            Entry token = ENTRIES[cells.get(index)];
+            UnionFind groups = token == Entry.X ? groupsOfX : groupsOfO;
+            // a cell next to groups which touch no pole joins no pole through them
+            int root = groups.find(index);
+            if (root != groups.find(firstPole) && root != groups.find(secondPole)) {
+                return;
+            }
+            BitSet winningCells = token == Entry.X ? winningCellsOfX : winningCellsOfO;
+            for (int i = 0; i < neighbours.degree(index); i++) {
+                int neighbour = neighbours.neighbour(index, i);
+                if (cells.get(neighbour) == Entry.EMPTY.ordinal() && !winningCells.get(neighbour)
+                        && wouldConnect(neighbour, token, groups)) {
+                    winningCells.set(neighbour);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Connectivity copy(CellStorage cells) {
+        return new UnionFindConnectivity(this, cells);
+    }
+
+    /**
+     * Finds the empty cells on the poles which connect both poles without any token next to them.
+     */
+    private void findWinningPoleCells(Entry token, UnionFind groups, BitSet winningCells) {
+        if (sideLength > 1 && !groups.connected(firstPole, secondPole)) {
+            return;
+        }
+        for (int position = 0; position < sideLength; position++) {
+            findWinningPoleCell(poleIndex(token, 0, position), token, groups, winningCells);
+            findWinningPoleCell(poleIndex(token, sideLength - 1, position), token, groups, winningCells);
+        }
+    }
+
+    private void findWinningPoleCell(int index, Entry token, UnionFind groups, BitSet winningCells) {
+        if (cells.get(index) == Entry.EMPTY.ordinal() && wouldConnect(index, token, groups)) {
+            winningCells.set(index);
+        }
+    }
+
+    /**
+     * Checks if placing the token on the specified empty cell would connect both poles of the token,
+     * by looking up which poles the groups around the cell are connected to.
+     */
+    private boolean wouldConnect(int index, Entry token, UnionFind groups) {
+        int line = lineOf(index, token);
+        int firstPoleRoot = groups.find(firstPole);
+        int secondPoleRoot = groups.find(secondPole);
+        // a cell lying on a pole is joined to it, and through it to the other pole once both are connected
+        boolean reachesFirstPole = line == 0 || line == sideLength - 1 && firstPoleRoot == secondPoleRoot;
+        boolean reachesSecondPole = line == sideLength - 1 || line == 0 && firstPoleRoot == secondPoleRoot;
+        for (int i = 0; i < neighbours.degree(index); i++) {
+            int neighbour = neighbours.neighbour(index, i);
+            if (cells.get(neighbour) != token.ordinal()) {
+                continue;
+            }
+            int root = groups.find(neighbour);
+            reachesFirstPole |= root == firstPoleRoot;
+            reachesSecondPole |= root == secondPoleRoot;
+            if (reachesFirstPole && reachesSecondPole) {
+                return true;
+            }
+        }
+        return reachesFirstPole && reachesSecondPole;
+    }
+
+    /**
+     * Unites a token with the groups of equal neighbouring tokens and with the poles it lies on.
+     */
+    private void connect(int index, Entry token, UnionFind groups) {
+        int line = lineOf(index, token);
+        if (line == 0) {
+            groups.union(index, firstPole);
+        }
+        if (line == sideLength - 1) {
+            groups.union(index, secondPole);
+        }
+        for (int i = 0; i < neighbours.degree(index); i++) {
+            int neighbour = neighbours.neighbour(index, i);
+            if (cells.get(neighbour) == token.ordinal()) {
+                groups.union(index, neighbour);
+            }
+        }
+    }
+
+    /**
+     * Gets the up to date groups of the specified token. Groups which were split by removing a token are rebuilt
+     * from the cells, which only happens when tokens are taken back.
+     */
+    private UnionFind getGroups(Entry token) {
+        if (token == Entry.X) {
+            if (groupsOfXOutdated) {
+                rebuild(Entry.X, groupsOfX);
+                groupsOfXOutdated = false;
+            }
+            return groupsOfX;
+        }
+        if (groupsOfOOutdated) {
+            rebuild(Entry.O, groupsOfO);
+            groupsOfOOutdated = false;
+        }
+        return groupsOfO;
+    }
+
+    private void rebuild(Entry token, UnionFind groups) {
+        groups.clear();
+        cells.forEachToken(index -> {
+            if (cells.get(index) == token.ordinal()) {
+                connect(index, token, groups);
+            }
+        });
+        // the rebuilt groups are never taken back
+        groups.forget();
+    }
+
+    private UnionFind groupsOf(int code) {
+        return code == Entry.X.ordinal() ? groupsOfX : groupsOfO;
+    }
+
+    private boolean isOutdated(int code) {
+        return code == Entry.X.ordinal() ? groupsOfXOutdated : groupsOfOOutdated;
+    }
+
+    private void push(int index, int mark) {
+        if (placedCount == placedCells.length) {
+            placedCells = Arrays.copyOf(placedCells, placedCount * 2);
+            placedMarks = Arrays.copyOf(placedMarks, placedCount * 2);
+        }
+        placedCells[placedCount] = index;
+        placedMarks[placedCount] = mark;
+        placedCount++;
+    }
+
+    /**
+     * Gets the line of a cell across the poles of a token, the row for X and the column for O.
+     */
+    private int lineOf(int index, Entry token) {
+        return token == Entry.X ? index / sideLength : index % sideLength;
+    }
+
+    private int poleIndex(Entry token, int line, int position) {
+        // the poles of X are rows, the poles of O are columns
+        return token == Entry.X ? line * sideLength + position : position * sideLength + line;
+    }
+
+}
@@ -0,0 +1,40 @@
+package hex.model;
+
+/**
+ * This class provides the Zobrist keys of the cells of a {@link Board}. The hash of a board is the exclusive or
+ * of the keys of all its tokens, so placing or removing a token changes it with a single exclusive or.
+ * The keys are not kept in a table but computed by a 64-bit mixing function from the side length, the index and
+ * the token, so boards of any size get well distributed keys without allocating anything.
+ *
+ * @author unxgx
+ */
+public final class Zobrist {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long FIRST_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final long SECOND_MULTIPLIER = 0x94D049BB133111EBL;
+
+    private Zobrist() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Gets the key of a cell holding the specified code. Empty cells have the key 0.
+     *
+     * @param sideLength the side length of the board
+     * @param index      the index of the cell
+     * @param code       the ordinal of the entry of the cell
+     * @return the key of the cell
+     */
+    public static long key(int sideLength, int index, int code) {
+        if (code == Entry.EMPTY.ordinal()) {
+            return 0;
+        }
+        long z = (((long) sideLength << Integer.SIZE) | (((long) index << 1) + code - 1)) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * FIRST_MULTIPLIER;
+        z = (z ^ (z >>> 27)) * SECOND_MULTIPLIER;
+        return z ^ (z >>> 31);
+    }
+
+}
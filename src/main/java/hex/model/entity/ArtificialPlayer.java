@@ -1,7 +1,11 @@
 package hex.model.entity;
 
+import hex.model.BoardView;
 import hex.model.Hex;
 import hex.model.Entry;
+import hex.model.MoveLog;
+import hex.model.NeighbourTable;
+import hex.model.Threats;
 
 /**
  * This class represents an abstract artificial player in a game of Hex. Artificial players have a name
@@ -15,6 +19,9 @@ public abstract class ArtificialPlayer implements Player {
     protected static final String PLACE_COMMAND = "place %d %d";
     protected static final String PLACE_SUCCESSFUL = "%s places at %d %d%n";
     protected static final String SWAP_COMMAND = "swap";
+    protected static final int NO_INDEX = -1;
+    // the first token is worth swapping if it is at least this share of the side length away from every edge
+    private static final int SWAP_EDGE_DIVISOR = 4;
 
     protected Hex currentHex;
     private final String name;
@@ -53,4 +60,73 @@ public abstract class ArtificialPlayer implements Player {
     public void setCurrentHex(Hex hex) {
         this.currentHex = hex;
     }
+
+    /**
+     * Gets the cell that wins the game at once, or else the cell that keeps the opponent from winning at once.
+     *
+     * @return the index of the cell, or NO_INDEX if no player can win at once
+     */
+    protected int getForcedMove() {
+        Threats threats = currentHex.getBoardView().getThreats();
+        int winningIndex = threats.getFirst(token);
+        if (winningIndex != NO_INDEX) {
+            return winningIndex;
+        }
+        return threats.getFirst(token == Entry.X ? Entry.O : Entry.X);
+    }
+
+    /**
+     * Checks whether the swap is allowed and the first token was placed far enough from the edges to take it over.
+     *
+     * @return true if the AI should swap, otherwise false
+     */
+    protected boolean isSwapWorthwhile() {
+        if (currentHex.getCurrentTurn() != 1 || currentHex.isSwapped()) {
+            return false;
+        }
+        int sideLength = currentHex.getBoardView().getSideLength();
+        MoveLog moves = currentHex.getMoves();
+        int distance = Math.min(Math.min(moves.getX(0), sideLength - 1 - moves.getX(0)),
+                Math.min(moves.getY(0), sideLength - 1 - moves.getY(0)));
+        return distance >= sideLength / SWAP_EDGE_DIVISOR;
+    }
+
+    /**
+     * Answers on a board too large to search next to the last token of the opponent, or on the first empty cell.
+     *
+     * @return the index of the cell
+     */
+    protected int answerWithoutSearch() {
+        BoardView board = currentHex.getBoardView();
+        int sideLength = board.getSideLength();
+        NeighbourTable neighbours = NeighbourTable.of(sideLength);
+        MoveLog moves = currentHex.getMoves();
+        int lastTurn = currentHex.getCurrentTurn() - 1;
+        int lastMove = moves.getY(lastTurn) * sideLength + moves.getX(lastTurn);
+        for (int i = 0; i < neighbours.degree(lastMove); i++) {
+            int neighbour = neighbours.neighbour(lastMove, i);
+            if (board.getEntry(neighbour) == Entry.EMPTY) {
+                return neighbour;
+            }
+        }
+        int index = 0;
+        while (board.getEntry(index) != Entry.EMPTY) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Announces a move of the AI and builds its command.
+     *
+     * @param index the index of the cell to place the token on
+     * @return the place command
+     */
+    protected String place(int index) {
+        int sideLength = currentHex.getBoardView().getSideLength();
+        int xCoordinate = index % sideLength;
+        int yCoordinate = index / sideLength;
+        System.out.printf(PLACE_SUCCESSFUL, name, xCoordinate, yCoordinate);
+        return String.format(PLACE_COMMAND, xCoordinate, yCoordinate);
+    }
 }
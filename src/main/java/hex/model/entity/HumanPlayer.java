@@ -59,4 +59,9 @@ public final class HumanPlayer implements Player {
          */
         throw new UnsupportedOperationException(NOT_IMPLEMENTED_MESSAGE);
     }
+
+    @Override
+    public Player copy() {
+        return new HumanPlayer(name, token);
+    }
 }
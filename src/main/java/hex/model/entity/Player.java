@@ -45,4 +45,19 @@ public interface Player {
      * @param hex The current hex game in which the player is making a move.
      */
     void setCurrentHex(Hex hex);
+
+    /**
+     * Creates a new player of the same kind with the same name and token, so that every game can have
+     * players of its own.
+     *
+     * @return The new player.
+     */
+    Player copy();
+
+    /**
+     * Releases what the player keeps between its moves, like the threads of a search. The player can still be
+     * asked for moves afterwards and takes them again then.
+     */
+    default void close() {
+    }
 }
@@ -0,0 +1,446 @@
+package hex.model.entity.artificialplayers;
+
+import hex.model.BoardView;
+import hex.model.Entry;
+import hex.model.NeighbourTable;
+import hex.model.ResistanceEvaluator;
+import hex.model.Zobrist;
+import hex.model.entity.ArtificialPlayer;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the artificial player AlphaBetaAI, which searches its moves by negamax with alpha-beta
+ * pruning. It deepens the search by one move at a time, and the search that runs out of time is stopped at once,
+ * so the AI always answers in time with the best move found so far. A position is rated by the number of empty
+ * cells each player still needs to connect their edges. Only the empty cells on a shortest connection of either
+ * player are searched, first the best move found for the position before, then the moves that cut off the search
+ * at the same depth elsewhere, and then the moves that cut it off most often. The moves of the position on the board
+ * are searched in the order the {@link ResistanceEvaluator} rates them, so the better rated of equally scored moves
+ * is played, as long as rating them takes a quarter of the time at most. The results are kept in a transposition
+ * table by the hash of the position, which every deeper search and every later move of the game starts from.
+ *
+ * @author unxgx
+ */
+public final class AlphaBetaAI extends ArtificialPlayer {
+
+    /**
+     * The time the AI searches for a move by default, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+    private static final String NAME = "AlphaBetaAI";
+    private static final String SEARCH_MESSAGE = "%s searched %d positions to depth %d in %d ms (%.0f positions/s)%n";
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+    // boards with more cells aren't searched, a single position would take too long to rate
+    private static final int MAX_SEARCH_CELLS = 1 << 16;
+    // the table holds 2^18 entries of 16 bytes
+    private static final int TABLE_BITS = 18;
+    private static final int MAX_DEPTH = 64;
+    // the time is checked after this many positions only, rating a position takes a few microseconds
+    private static final int TIME_CHECK_MASK = (1 << 8) - 1;
+    private static final int INFINITY = Short.MAX_VALUE;
+    private static final int WIN = 30000;
+    // scores beyond this are wins or losses found by the search
+    private static final int WIN_THRESHOLD = WIN - 2 * MAX_DEPTH;
+    private static final int DISTANCE_WEIGHT = 16;
+    // the moves of larger boards aren't rated by their resistances, which would take too long
+    private static final int MAX_RATED_CELLS = 19 * 19;
+    // the share of the time the moves may be rated for, the rest is left to the search
+    private static final int RATING_TIME_DIVISOR = 4;
+    // a rating of the resistances is a logarithm of at most about 14, scaled to a priority
+    private static final int RESISTANCE_WEIGHT = 1000;
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+    private static final int KILLERS_PER_PLY = 2;
+    private static final int TABLE_MOVE_PRIORITY = Integer.MAX_VALUE;
+    private static final int KILLER_PRIORITY = Integer.MAX_VALUE - KILLERS_PER_PLY;
+    // a cell on a shortest connection of both players is worth more than the same history
+    private static final int SHARED_CELL_PRIORITY = 1 << 10;
+    private static final byte EMPTY = (byte) Entry.EMPTY.ordinal();
+    private static final byte X = (byte) Entry.X.ordinal();
+    private static final byte O = (byte) Entry.O.ordinal();
+
+    private final long timeBudgetMillis;
+    // kept from move to move, created with the first search
+    private TranspositionTable table;
+    private ResistanceEvaluator evaluator;
+
+    /**
+     * Instantiates a new AlphaBetaAI with the specified token, which searches for the default time per move.
+     *
+     * @param token the token of the AI
+     */
+    public AlphaBetaAI(Entry token) {
+        this(token, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Instantiates a new AlphaBetaAI with the specified token and time per move.
+     *
+     * @param token            the token of the AI
+     * @param timeBudgetMillis the time to search for a move in milliseconds
+     */
+    public AlphaBetaAI(Entry token, long timeBudgetMillis) {
+        super(NAME, token);
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public AlphaBetaAI copy() {
+        return new AlphaBetaAI(getToken(), timeBudgetMillis);
+    }
+
+    @Override
+    public String getMove() {
+        // wins at once, or keeps the opponent from winning at once
+        int forcedMove = getForcedMove();
+        if (forcedMove != NO_INDEX) {
+            return place(forcedMove);
+        }
+        if (isSwapWorthwhile()) {
+            return SWAP_COMMAND;
+        }
+        BoardView board = currentHex.getBoardView();
+        if (board.getCellCount() > MAX_SEARCH_CELLS) {
+            return place(answerWithoutSearch());
+        }
+        if (table == null) {
+            table = new TranspositionTable(TABLE_BITS);
+        }
+        long start = System.nanoTime();
+        long budget = timeBudgetMillis * NANOS_PER_MILLI;
+        table.nextGeneration();
+        double[] ratings = rateMoves(board, start + budget / RATING_TIME_DIVISOR);
+        Search search = new Search(board, start + budget, ratings);
+        int move = search.run(getToken() == Entry.X ? X : O);
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        System.out.printf(SEARCH_MESSAGE, NAME, search.positions, search.finishedDepth, nanos / NANOS_PER_MILLI,
+                search.positions * NANOS_PER_SECOND / nanos);
+        return place(move == NO_INDEX ? answerWithoutSearch() : move);
+    }
+
+    /**
+     * Rates the moves on the board by the resistances of both players after them.
+     *
+     * @param deadline the {@link System#nanoTime()} the ratings have to be done by
+     * @return the ratings of the cells, or null if the board is too large or the time ran out to rate them
+     */
+    private double[] rateMoves(BoardView board, long deadline) {
+        if (board.getCellCount() > MAX_RATED_CELLS) {
+            return null;
+        }
+        // the voltages of the last move are where the evaluator starts from
+        if (evaluator == null) {
+            evaluator = new ResistanceEvaluator(board.getSideLength());
+        }
+        evaluator.load(board);
+        double[] ratings = new double[board.getCellCount()];
+        return evaluator.scoreMoves(getToken(), ratings, deadline) ? ratings : null;
+    }
+
+    /**
+     * The search of one move, together with the position the search is at.
+     */
+    private final class Search {
+
+        private final long deadline;
+        private final int sideLength;
+        private final int cellCount;
+        private final NeighbourTable neighbours;
+        private final byte[] cells;
+        private final int emptyCount;
+        private long hash;
+        // the distances of the cells from both edges of the player to move and of the opponent
+        private final int[] ownFirstDistances;
+        private final int[] ownSecondDistances;
+        private final int[] opponentFirstDistances;
+        private final int[] opponentSecondDistances;
+        // a queue of cells that can also be added at its head
+        private final int[] deque;
+        private final int dequeMask;
+        private final int[][] moves = new int[MAX_DEPTH + 1][];
+        private final int[][] priorities = new int[MAX_DEPTH + 1][];
+        private final int[][] killers = new int[MAX_DEPTH + 1][KILLERS_PER_PLY];
+        // how often a move cut off the search, weighted by the depth
+        private final int[] history;
+        // the ratings of the moves at the root, or null to order them by their history
+        private final double[] rootRatings;
+        private long positions;
+        private int finishedDepth;
+        private boolean timeUp;
+        private int rootBestMove;
+
+        Search(BoardView board, long deadline, double[] rootRatings) {
+            this.deadline = deadline;
+            this.rootRatings = rootRatings;
+            this.sideLength = board.getSideLength();
+            this.cellCount = board.getCellCount();
+            this.neighbours = NeighbourTable.of(sideLength);
+            this.cells = new byte[cellCount];
+            int empty = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                cells[cell] = (byte) board.getEntry(cell).ordinal();
+                if (cells[cell] == EMPTY) {
+                    empty++;
+                }
+            }
+            this.emptyCount = empty;
+            this.hash = board.getHash();
+            this.ownFirstDistances = new int[cellCount];
+            this.ownSecondDistances = new int[cellCount];
+            this.opponentFirstDistances = new int[cellCount];
+            this.opponentSecondDistances = new int[cellCount];
+            // every cell is added at most twice, once at the tail and once at the head
+            this.deque = new int[Integer.highestOneBit(2 * cellCount) << 1];
+            this.dequeMask = deque.length - 1;
+            this.history = new int[cellCount];
+            for (int[] killersOfPly : killers) {
+                Arrays.fill(killersOfPly, NO_INDEX);
+            }
+        }
+
+        /**
+         * Deepens the search until the time is up, the result is certain or the board is full.
+         *
+         * @param token the token to move
+         * @return the best move, or NO_INDEX if not even the first move could be searched in time
+         */
+        int run(byte token) {
+            int bestMove = NO_INDEX;
+            for (int depth = 1; depth <= Math.min(MAX_DEPTH, emptyCount); depth++) {
+                rootBestMove = NO_INDEX;
+                int score = search(token, depth, 0, -INFINITY, INFINITY);
+                // the best move of the previous depth is searched first, so an unfinished depth can only improve it
+                if (rootBestMove != NO_INDEX) {
+                    bestMove = rootBestMove;
+                }
+                if (timeUp) {
+                    break;
+                }
+                finishedDepth = depth;
+                if (Math.abs(score) >= WIN_THRESHOLD) {
+                    break;
+                }
+            }
+            return bestMove;
+        }
+
+        private int search(byte token, int depth, int ply, int alpha, int beta) {
+            positions++;
+            if ((positions & TIME_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                timeUp = true;
+            }
+            if (timeUp) {
+                return 0;
+            }
+            byte opponent = token == X ? O : X;
+            // the opponent may have connected their edges with the last move
+            int opponentDistance = measure(opponent, true, opponentFirstDistances);
+            if (opponentDistance == 0) {
+                return -(WIN - ply);
+            }
+            int ownDistance = measure(token, true, ownFirstDistances);
+            if (ownDistance <= 1) {
+                return WIN - ply - 1;
+            }
+            if (depth == 0) {
+                return rate(ownDistance, opponentDistance);
+            }
+            long data = table.probe(hash);
+            int tableMove = NO_INDEX;
+            if (data != TranspositionTable.MISSING) {
+                tableMove = TranspositionTable.getMove(data);
+                // the root is always searched, so it finds a move
+                if (ply > 0 && TranspositionTable.getDepth(data) >= depth) {
+                    int score = fromTable(TranspositionTable.getScore(data), ply);
+                    int bound = TranspositionTable.getBound(data);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && score >= beta
+                            || bound == TranspositionTable.UPPER && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+            int moveCount = generateMoves(token, opponent, ply, ownDistance, opponentDistance, tableMove);
+            if (moveCount == 0) {
+                return rate(ownDistance, opponentDistance);
+            }
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+            int bestMove = NO_INDEX;
+            for (int i = 0; i < moveCount; i++) {
+                int move = moves[ply][i];
+                play(move, token);
+                int score = -search(opponent, depth - 1, ply + 1, -beta, -alpha);
+                play(move, EMPTY);
+                if (timeUp) {
+                    return 0;
+                }
+                if (score > best) {
+                    best = score;
+                    bestMove = move;
+                    if (ply == 0) {
+                        rootBestMove = move;
+                    }
+                }
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    history[move] += depth * depth;
+                    if (killers[ply][0] != move) {
+                        killers[ply][1] = killers[ply][0];
+                        killers[ply][0] = move;
+                    }
+                    break;
+                }
+            }
+            int bound = TranspositionTable.EXACT;
+            if (best <= originalAlpha) {
+                bound = TranspositionTable.UPPER;
+            } else if (best >= beta) {
+                bound = TranspositionTable.LOWER;
+            }
+            table.store(hash, bestMove, depth, bound, toTable(best, ply));
+            return best;
+        }
+
+        /**
+         * Rates a position by how many empty cells the player to move needs less than the opponent,
+         * staying below the scores of wins and losses.
+         */
+        private int rate(int ownDistance, int opponentDistance) {
+            int score = (opponentDistance - ownDistance) * DISTANCE_WEIGHT;
+            return Math.max(-WIN_THRESHOLD + 1, Math.min(WIN_THRESHOLD - 1, score));
+        }
+
+        /**
+         * Collects the empty cells on a shortest connection of either player, in the order they are searched in.
+         *
+         * @return the number of moves
+         */
+        private int generateMoves(byte token, byte opponent, int ply, int ownDistance, int opponentDistance,
+                                  int tableMove) {
+            if (moves[ply] == null) {
+                moves[ply] = new int[cellCount];
+                priorities[ply] = new int[cellCount];
+            }
+            int[] plyMoves = moves[ply];
+            int[] plyPriorities = priorities[ply];
+            measure(token, false, ownSecondDistances);
+            measure(opponent, false, opponentSecondDistances);
+            int count = 0;
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (cells[cell] != EMPTY) {
+                    continue;
+                }
+                // an empty cell counts once in the distances from both edges
+                boolean onOwnPath = ownFirstDistances[cell] + ownSecondDistances[cell] - 1 == ownDistance;
+                boolean onOpponentPath =
+                        opponentFirstDistances[cell] + opponentSecondDistances[cell] - 1 == opponentDistance;
+                if (!onOwnPath && !onOpponentPath && cell != tableMove) {
+                    continue;
+                }
+                int priority = history[cell] + (onOwnPath && onOpponentPath ? SHARED_CELL_PRIORITY : 0);
+                if (ply == 0 && rootRatings != null) {
+                    priority = (int) Math.round(rootRatings[cell] * RESISTANCE_WEIGHT);
+                }
+                if (cell == tableMove) {
+                    priority = TABLE_MOVE_PRIORITY;
+                } else if (cell == killers[ply][0] || cell == killers[ply][1]) {
+                    priority = KILLER_PRIORITY;
+                }
+                // keeps the moves sorted by their priority, highest first
+                int i = count++;
+                while (i > 0 && plyPriorities[i - 1] < priority) {
+                    plyMoves[i] = plyMoves[i - 1];
+                    plyPriorities[i] = plyPriorities[i - 1];
+                    i--;
+                }
+                plyMoves[i] = cell;
+                plyPriorities[i] = priority;
+            }
+            return count;
+        }
+
+        /**
+         * Measures the distances of all cells from one edge of a player, which are the numbers of empty cells
+         * on the shortest ways from the edge to the cells, the cells included. Tokens of the opponent block the way.
+         *
+         * @return the distance between both edges of the player
+         */
+        private int measure(byte token, boolean fromFirstEdge, int[] distances) {
+            Arrays.fill(distances, UNREACHABLE);
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < sideLength; i++) {
+                int cell = edgeCell(token, fromFirstEdge, i);
+                if (cells[cell] == token) {
+                    distances[cell] = 0;
+                    head = (head - 1) & dequeMask;
+                    deque[head] = cell;
+                } else if (cells[cell] == EMPTY) {
+                    distances[cell] = 1;
+                    deque[tail] = cell;
+                    tail = (tail + 1) & dequeMask;
+                }
+            }
+            while (head != tail) {
+                int cell = deque[head];
+                head = (head + 1) & dequeMask;
+                for (int i = 0; i < neighbours.degree(cell); i++) {
+                    int neighbour = neighbours.neighbour(cell, i);
+                    byte entry = cells[neighbour];
+                    if (entry == token && distances[cell] < distances[neighbour]) {
+                        distances[neighbour] = distances[cell];
+                        head = (head - 1) & dequeMask;
+                        deque[head] = neighbour;
+                    } else if (entry == EMPTY && distances[cell] + 1 < distances[neighbour]) {
+                        distances[neighbour] = distances[cell] + 1;
+                        deque[tail] = neighbour;
+                        tail = (tail + 1) & dequeMask;
+                    }
+                }
+            }
+            int distance = UNREACHABLE;
+            for (int i = 0; i < sideLength; i++) {
+                distance = Math.min(distance, distances[edgeCell(token, !fromFirstEdge, i)]);
+            }
+            return distance;
+        }
+
+        /**
+         * Gets a cell on an edge of a player: X connects the north and the south edge, O the west and the east edge.
+         */
+        private int edgeCell(byte token, boolean firstEdge, int i) {
+            int last = sideLength - 1;
+            if (token == X) {
+                return firstEdge ? i : last * sideLength + i;
+            }
+            return firstEdge ? i * sideLength : i * sideLength + last;
+        }
+
+        private void play(int cell, byte entry) {
+            hash ^= Zobrist.key(sideLength, cell, cells[cell]) ^ Zobrist.key(sideLength, cell, entry);
+            cells[cell] = entry;
+        }
+
+        /**
+         * Makes a win or loss relative to the position, so it can be used at any ply the position is reached at.
+         */
+        private int toTable(int score, int ply) {
+            if (score >= WIN_THRESHOLD) {
+                return score + ply;
+            }
+            return score <= -WIN_THRESHOLD ? score - ply : score;
+        }
+
+        private int fromTable(int score, int ply) {
+            if (score >= WIN_THRESHOLD) {
+                return score - ply;
+            }
+            return score <= -WIN_THRESHOLD ? score + ply : score;
+        }
+
+    }
+
+}
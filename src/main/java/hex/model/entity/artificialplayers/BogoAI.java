@@ -1,9 +1,10 @@
-package edu.kit.kastel.hex.model.entity.artificialplayers;
+package hex.model.entity.artificialplayers;
 
-import edu.kit.kastel.hex.model.entity.ArtificialPlayer;
-import edu.kit.kastel.hex.model.Entry;
-import edu.kit.kastel.hex.model.Board;
-import edu.kit.kastel.hex.model.Hexagon;
+import hex.model.entity.ArtificialPlayer;
+import hex.model.Entry;
+import hex.model.BoardView;
+import hex.model.MoveLog;
+import hex.model.Threats;
 
 /**
  * This class represents the artificial player BogoAI with basic move generation logic for playing Hex.
@@ -22,13 +23,18 @@ public final class BogoAI extends ArtificialPlayer {
         super(NAME, token);
     }
 
+    @Override
+    public BogoAI copy() {
+        return new BogoAI(getToken());
+    }
+
     @Override
     public String getMove() {
 
-        Board board = currentHex.getBoard();
-        Hexagon[] entries = board.getEntries();
+        BoardView board = currentHex.getBoardView();
         // checks if the AI can win
-        int winningIndex = board.getWinningIndex(getToken());
+        Threats threats = board.getThreats();
+        int winningIndex = threats.getFirst(getToken());
         if (winningIndex != -1) {
             int xCoordinate = winningIndex % board.getSideLength();
             int yCoordinate = winningIndex / board.getSideLength();
@@ -37,7 +43,7 @@ public final class BogoAI extends ArtificialPlayer {
         }
         // checks if the opponent can win
         Entry opponentToken = getToken() == Entry.X ? Entry.O : Entry.X;
-        int preventionIndex = board.getWinningIndex(opponentToken);
+        int preventionIndex = threats.getFirst(opponentToken);
         if (preventionIndex != -1) {
             int xCoordinate = preventionIndex % board.getSideLength();
             int yCoordinate = preventionIndex / board.getSideLength();
@@ -46,14 +52,8 @@ public final class BogoAI extends ArtificialPlayer {
         }
         // gets the last placed token
         int currentTurn = currentHex.getCurrentTurn();
-        String lastMoveHistory = currentHex.getHistory().get(currentTurn - 1);
-        String[] parts = lastMoveHistory.split(":");
-        String lastMove = parts[1].trim();
-        String[] lastMoveString = lastMove.split(" ");
-        int[] lastMoveCoordinates = new int[lastMoveString.length];
-        for (int i = 0; i < lastMoveString.length; i++) {
-            lastMoveCoordinates[i] = Integer.parseInt(lastMoveString[i]);
-        }
+        MoveLog moves = currentHex.getMoves();
+        int[] lastMoveCoordinates = {moves.getX(currentTurn - 1), moves.getY(currentTurn - 1)};
         // swaps the tokens if the last move of player one was on an even sum
         if (currentTurn == 1) {
             int sumLastMove = lastMoveCoordinates[0] + lastMoveCoordinates[1];
@@ -62,17 +62,19 @@ public final class BogoAI extends ArtificialPlayer {
             }
         }
         // gets the point symmetry of the last move
-        int xCoordinate = pointSymmetryCalculator(lastMoveCoordinates)[0];
-        int yCoordinate = pointSymmetryCalculator(lastMoveCoordinates)[1];
+        int[] pointSymmetryCoordinates = pointSymmetryCalculator(board, lastMoveCoordinates);
+        int xCoordinate = pointSymmetryCoordinates[0];
+        int yCoordinate = pointSymmetryCoordinates[1];
         if (board.isEmpty(xCoordinate, yCoordinate)) {
             System.out.printf(PLACE_SUCCESSFUL, NAME, xCoordinate, yCoordinate);
             return String.format(PLACE_COMMAND, xCoordinate, yCoordinate);
         } else {
             // if the point symmetry is already occupied, the AI places the token on the first empty hexagon
-            for (int i = 0; i < entries.length; i++) {
-                if (entries[i] == null) {
-                    xCoordinate = i % board.getSideLength();
-                    yCoordinate = i / board.getSideLength();
+            int sideLength = board.getSideLength();
+            for (int i = 0; i < sideLength * sideLength; i++) {
+                if (board.isEmpty(i % sideLength, i / sideLength)) {
+                    xCoordinate = i % sideLength;
+                    yCoordinate = i / sideLength;
                     System.out.printf(PLACE_SUCCESSFUL, NAME, xCoordinate, yCoordinate);
                     return String.format(PLACE_COMMAND, xCoordinate, yCoordinate);
                 }
@@ -82,8 +84,7 @@ public final class BogoAI extends ArtificialPlayer {
         return null;
     }
 
-    private int[] pointSymmetryCalculator(int[] coordinates) {
-        Board board = currentHex.getBoard();
+    private int[] pointSymmetryCalculator(BoardView board, int[] coordinates) {
         int centerXCoordinate = board.getSideLength() / 2;
         int centerYCoordinate = board.getSideLength() / 2;
 
@@ -1,19 +1,15 @@
 package hex.model.entity.artificialplayers;
 
 import hex.model.Board;
-import hex.model.Hexagon;
+import hex.model.BoardView;
+import hex.model.MoveLog;
+import hex.model.NeighbourTable;
+import hex.model.Threats;
 import hex.model.entity.ArtificialPlayer;
 import hex.model.Entry;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.BitSet;
 
 
 /**
@@ -24,6 +20,8 @@ import java.util.LinkedList;
 public final class HeroAI extends ArtificialPlayer {
 
     private static final String NAME = "HeroAI";
+    private static final int NO_INDEX = -1;
+    private static final int UNVISITED = -2;
 
     /**
      * Instantiates a new HeroAI with the specified token.
@@ -34,12 +32,18 @@ public final class HeroAI extends ArtificialPlayer {
         super(NAME, token);
     }
 
+    @Override
+    public HeroAI copy() {
+        return new HeroAI(getToken());
+    }
+
     @Override
     public String getMove() {
-        Board board = currentHex.getBoard();
+        BoardView board = currentHex.getBoardView();
         int currentTurn = currentHex.getCurrentTurn();
         // checks if the AI can win
-        int winningIndex = board.getWinningIndex(getToken());
+        Threats threats = board.getThreats();
+        int winningIndex = threats.getFirst(getToken());
         if (winningIndex != -1) {
             int xCoordinate = winningIndex % board.getSideLength();
             int yCoordinate = winningIndex / board.getSideLength();
@@ -48,15 +52,15 @@ public final class HeroAI extends ArtificialPlayer {
         }
         // checks if the opponent can win
         Entry opponentToken = getToken() == Entry.X ? Entry.O : Entry.X;
-        int preventionIndex = board.getWinningIndex(opponentToken);
+        int preventionIndex = threats.getFirst(opponentToken);
         if (preventionIndex != -1) {
             int xCoordinate = preventionIndex % board.getSideLength();
             int yCoordinate = preventionIndex / board.getSideLength();
             System.out.printf(PLACE_SUCCESSFUL, NAME, xCoordinate, yCoordinate);
             return String.format(PLACE_COMMAND, xCoordinate, yCoordinate);
         }
-        // gets the next move
-        int[] nextMoveCoordinates = nextMoveRecursively(currentTurn, board, 1, new HashSet<>());
+        // gets the next move, on a copy of the board because the search rolls back tokens
+        int[] nextMoveCoordinates = nextMoveRecursively(currentTurn, currentHex.getBoard(), 1, new BitSet());
         int xCoordinate = nextMoveCoordinates[0];
         int yCoordinate = nextMoveCoordinates[1];
         System.out.printf(PLACE_SUCCESSFUL, NAME, xCoordinate, yCoordinate);
@@ -64,36 +68,32 @@ public final class HeroAI extends ArtificialPlayer {
 
     }
 
-    private int[] nextMoveRecursively(int currentTurn, Board board, int rollingBack, Set<Hexagon> rollbacked) {
+    private int[] nextMoveRecursively(int currentTurn, Board board, int rollingBack, BitSet rollbacked) {
         // calculates the first move if there is no token on the board or accepted so
         if (!board.containsAny(getToken())) {
             int[] firstMove = firstMoveCalculator(board, rollbacked);
             return firstMove;
         }
         // getting the last placed token, with every rollback the last placed token is getting older
-        String lastMoveHistory = currentHex.getHistory().get(currentTurn - 2 * rollingBack);
-        String[] parts = lastMoveHistory.split(":");
-        String lastMove = parts[1].trim();
-        String[] lastMoveString = lastMove.split(" ");
-        int[] lastMoveCoordinates = new int[lastMoveString.length];
-        for (int i = 0; i < lastMoveString.length; i++) {
-            lastMoveCoordinates[i] = Integer.parseInt(lastMoveString[i]);
-        }
-        Hexagon lastMoveHexagon = board.getEntries()[lastMoveCoordinates[1] * board.getSideLength() + lastMoveCoordinates[0]];
+        MoveLog moves = currentHex.getMoves();
+        int lastTurn = currentTurn - 2 * rollingBack;
+        int[] lastMoveCoordinates = {moves.getX(lastTurn), moves.getY(lastTurn)};
+        int sideLength = board.getSideLength();
+        int lastMoveIndex = lastMoveCoordinates[1] * sideLength + lastMoveCoordinates[0];
         // if there is a free hexagon next to the last placed token on the shortest path, the AI will place a token there
-        List<Hexagon> shortestPath = findShortestPathToEastPol(lastMoveHexagon, board, rollbacked);
-        if (shortestPath.size() >= 2) {
-            int[] coordinates = {shortestPath.get(1).getX(), shortestPath.get(1).getY()};
+        int nextIndex = findNextStepToEastPol(lastMoveIndex, board, rollbacked);
+        if (nextIndex != NO_INDEX) {
+            int[] coordinates = {nextIndex % sideLength, nextIndex / sideLength};
             if (!board.isEmpty(coordinates[0], coordinates[1])) {
-                board.set(lastMoveCoordinates[0], lastMoveCoordinates[1], null);
-                rollbacked.add(lastMoveHexagon);
+                board.set(lastMoveCoordinates[0], lastMoveCoordinates[1], Entry.EMPTY);
+                rollbacked.set(lastMoveIndex);
                 return nextMoveRecursively(currentTurn, board, rollingBack + 1, rollbacked);
             }
             return coordinates;
         } else {
             // if the shortest path is blocked, the AI will rollback and try to find another shortest path
-            board.set(lastMoveCoordinates[0], lastMoveCoordinates[1], null);
-            rollbacked.add(lastMoveHexagon);
+            board.set(lastMoveCoordinates[0], lastMoveCoordinates[1], Entry.EMPTY);
+            rollbacked.set(lastMoveIndex);
             return nextMoveRecursively(currentTurn, board, rollingBack + 1, rollbacked);
         }
     }
@@ -102,17 +102,17 @@ public final class HeroAI extends ArtificialPlayer {
      * This method calculates the first move of the AI. It gives the coordinates of the most west and most north free hexagon.
      *
      * @param board      board
-     * @param rollbacked rollbacked hexagons of this player
+     * @param rollbacked indices of the rollbacked hexagons of this player
      * @return the coordinates of the most west and most north free hexagon
      */
-    private int[] firstMoveCalculator(Board board, Set<Hexagon> rollbacked) {
-        int sideLength = currentHex.getBoard().getSideLength();
+    private int[] firstMoveCalculator(Board board, BitSet rollbacked) {
+        int sideLength = board.getSideLength();
         int mostWestX = sideLength;
         int mostNorthY = sideLength;
 
         for (int i = 0; i < sideLength; i++) {
             for (int j = 0; j < sideLength; j++) {
-                if (board.getEntries()[i * sideLength + j] == null && !rollbacked.contains(board.getEntries()[i * sideLength + j])) {
+                if (board.isEmpty(j, i) && !rollbacked.get(i * sideLength + j)) {
                     if (j < mostWestX) {
                         mostWestX = j;
                         mostNorthY = i;
@@ -127,58 +127,49 @@ public final class HeroAI extends ArtificialPlayer {
 
     /**
      * Finds the shortest path from the given starting hexagon to an east pole on the game board. This method
-     * performs Dijkstra's algorithm adjusted to logic of hexagons to find the shortest path while avoiding occupied hexagons and those in
-     * the rollbacked set.
+     * performs a breadth-first search over the shared {@link NeighbourTable} to find the shortest path while avoiding
+     * hexagons occupied by X and those in the rollbacked set.
      *
-     * @param start      The starting hexagon from which the path search begins.
+     * @param start      The index of the starting hexagon from which the path search begins.
      * @param board      The game board on which the search is performed.
-     * @param rollbacked A set containing hexagons that should be excluded from the search.
-     * @return A list of hexagons representing the shortest path to the nearest east pole on the board. If no path is found,
-     *     an empty list is returned.
+     * @param rollbacked A set containing the indices of hexagons that should be excluded from the search.
+     * @return The index of the hexagon following the start on the shortest path to the nearest east pole.
+     *     If no path is found or the start is an east pole itself, -1 is returned.
      */
-    private List<Hexagon> findShortestPathToEastPol(Hexagon start, Board board, Set<Hexagon> rollbacked) {
-        Map<Hexagon, Hexagon> previousNodes = new HashMap<>();
-        Queue<Hexagon> queue = new LinkedList<>();
-        Set<Hexagon> visited = new HashSet<>();
-
-        queue.add(start);
-        visited.add(start);
-
-        while (!queue.isEmpty()) {
-            Hexagon current = queue.poll();
-
-            if (current.isEastPol()) {
-                // the shortest path is found
-                List<Hexagon> shortestPath = new ArrayList<>();
-                Hexagon node = current;
-                while (node != null) {
-                    shortestPath.add(node);
-                    node = previousNodes.get(node);
+    private int findNextStepToEastPol(int start, Board board, BitSet rollbacked) {
+        int sideLength = board.getSideLength();
+        NeighbourTable neighbours = NeighbourTable.of(sideLength);
+        int[] previousNodes = new int[neighbours.getCellCount()];
+        Arrays.fill(previousNodes, UNVISITED);
+        int[] queue = new int[neighbours.getCellCount()];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = start;
+        previousNodes[start] = NO_INDEX;
+
+        while (head < tail) {
+            int current = queue[head++];
+
+            if (current % sideLength == sideLength - 1) {
+                // the shortest path is found, it is followed back to the hexagon after the start
+                int node = current;
+                while (previousNodes[node] != NO_INDEX && previousNodes[node] != start) {
+                    node = previousNodes[node];
                 }
-                Collections.reverse(shortestPath);
-                return shortestPath;
+                return node == start ? NO_INDEX : node;
             }
 
-            for (Hexagon neighbor : current.getNeighbours()) {
-                int x = neighbor.getX();
-                int y = neighbor.getY();
-                boolean isOccupiedByX = board.isOccupiedBy(x, y, Entry.X);
-                if (!visited.contains(neighbor) && !isOccupiedByX) {
-                    int sideLength = board.getSideLength();
-                    /*
-                      it creates a new hexagon with advanced constructor, because the neighbor hexagon was built with a basic constructor
-                      and the neighbors of the neighbor hexagon are not initialized.
-                     */
-                    Hexagon hexagon = new Hexagon(x, y, sideLength, Entry.EMPTY);
-                    if (!rollbacked.contains(hexagon)) {
-                        queue.add(hexagon);
-                        visited.add(hexagon);
-                        previousNodes.put(hexagon, current);
-                    }
+            for (int i = 0; i < neighbours.degree(current); i++) {
+                int neighbour = neighbours.neighbour(current, i);
+                boolean isOccupiedByX = board.isOccupiedBy(neighbour % sideLength, neighbour / sideLength, Entry.X);
+                if (previousNodes[neighbour] == UNVISITED && !isOccupiedByX && !rollbacked.get(neighbour)) {
+                    queue[tail++] = neighbour;
+                    previousNodes[neighbour] = current;
                 }
             }
 
         }
-        return new ArrayList<>();
+        return NO_INDEX;
     }
 }
@@ -0,0 +1,474 @@
+package hex.model.entity.artificialplayers;
+
+import hex.model.BoardView;
+import hex.model.Entry;
+import hex.model.entity.ArtificialPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class represents the artificial player MctsAI, which searches its moves by Monte Carlo tree search with
+ * the UCT rule. Every iteration descends the search tree and finishes the game by random moves, whose winner is
+ * counted for every move on the way and, to rate moves after few iterations already, for every move made later on
+ * by the same player (rapid action value estimation). The random moves are made by a {@link Playout}, which fills
+ * the board up and checks for the winner only once.
+ * The AI searches for a given time per move, or for a given number of playouts, and plays the move that was
+ * searched most. It searches on several threads, either all in one tree or each in a tree of its own.
+ * The threads are kept from move to move until the AI is closed.
+ *
+ * @author unxgx
+ */
+public final class MctsAI extends ArtificialPlayer {
+
+    /**
+     * The time the AI searches for a move by default, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    /**
+     * The playout budget that lets the AI search for its time budget instead.
+     */
+    public static final int NO_PLAYOUT_BUDGET = 0;
+
+    /**
+     * The ways the threads of the AI share the search.
+     */
+    public enum Parallelism {
+        /**
+         * All threads search one tree together.
+         */
+        TREE,
+        /**
+         * Every thread searches a tree of its own, and the visits of the moves are added up at the end.
+         */
+        ROOT
+    }
+
+    private static final String NAME = "MctsAI";
+    private static final String PLAYOUTS_MESSAGE = "%s ran %d playouts on %d threads in %d ms (%.0f playouts/s)%n";
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+    // weighs exploring rarely searched moves against exploiting moves that won often
+    private static final double EXPLORATION = 0.1;
+    // the bias of the results of all iterations a move was made in, compared to the results of its own iterations
+    private static final double ALL_MOVES_BIAS = 0.04;
+    // the value of a move that wasn't made in any iteration yet, higher than any value of a searched move
+    private static final double FIRST_PLAY_VALUE = 2;
+    // a node gets its children after this many iterations reached it
+    private static final int EXPANSION_THRESHOLD = 4;
+    // the time is checked after this many playouts only, a playout takes a few microseconds
+    private static final int TIME_CHECK_INTERVAL = 16;
+    // boards with more cells aren't searched, the arrays of the search wouldn't fit into memory
+    private static final int MAX_SEARCH_CELLS = 1 << 16;
+    // the nodes of all trees of a move together
+    private static final int MAX_TREE_NODES = 1 << 21;
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // the fields of a node in a tree
+    private static final int MOVE = 0;
+    private static final int FIRST_CHILD = 1;
+    private static final int CHILD_COUNT = 2;
+    private static final int VISITS = 3;
+    private static final int WINS = 4;
+    private static final int ALL_MOVES_VISITS = 5;
+    private static final int ALL_MOVES_WINS = 6;
+    private static final int NODE_FIELDS = 7;
+    private static final int ROOT = 0;
+    // the root is no child of any node, so a node without children has it as its first child
+    private static final int NO_CHILDREN = ROOT;
+    // multiplier and shifts of the xorshift64* generator
+    private static final long RANDOM_MULTIPLIER = 0x2545F4914F6CDD1DL;
+    private static final int RANDOM_SHIFT_A = 12;
+    private static final int RANDOM_SHIFT_B = 25;
+    private static final int RANDOM_SHIFT_C = 27;
+
+    private final long timeBudgetMillis;
+    private final int playoutBudget;
+    private final int threads;
+    private final Parallelism parallelism;
+    private long randomState;
+    private double playoutsPerSecond;
+    // the threads of the searches, created with the first search on more than one thread
+    private ForkJoinPool pool;
+
+    /**
+     * Instantiates a new MctsAI with the specified token, which searches for the default time per move
+     * in one tree on all cores.
+     *
+     * @param token the token of the AI
+     */
+    public MctsAI(Entry token) {
+        this(token, DEFAULT_TIME_BUDGET_MILLIS, NO_PLAYOUT_BUDGET, Runtime.getRuntime().availableProcessors(),
+                Parallelism.TREE);
+    }
+
+    /**
+     * Instantiates a new MctsAI with the specified token, budget per move and threads.
+     *
+     * @param token            the token of the AI
+     * @param timeBudgetMillis the time to search for a move in milliseconds, used if there is no playout budget
+     * @param playoutBudget    the number of playouts per move, or {@link #NO_PLAYOUT_BUDGET} to search for the time
+     * @param threads          the number of threads to search on
+     * @param parallelism      the way the threads share the search
+     */
+    public MctsAI(Entry token, long timeBudgetMillis, int playoutBudget, int threads, Parallelism parallelism) {
+        super(NAME, token);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.playoutBudget = playoutBudget;
+        this.threads = threads;
+        this.parallelism = parallelism;
+        // zero would stay zero forever
+        this.randomState = System.nanoTime() | 1;
+    }
+
+    @Override
+    public MctsAI copy() {
+        return new MctsAI(getToken(), timeBudgetMillis, playoutBudget, threads, parallelism);
+    }
+
+    /**
+     * Gets the number of playouts per second of the last search.
+     *
+     * @return the playouts per second, 0 if the AI hasn't searched yet
+     */
+    public double getPlayoutsPerSecond() {
+        return this.playoutsPerSecond;
+    }
+
+    @Override
+    public String getMove() {
+        // wins at once, or keeps the opponent from winning at once
+        int forcedMove = getForcedMove();
+        if (forcedMove != NO_INDEX) {
+            return place(forcedMove);
+        }
+        if (isSwapWorthwhile()) {
+            return SWAP_COMMAND;
+        }
+        BoardView board = currentHex.getBoardView();
+        int sideLength = board.getSideLength();
+        if ((long) sideLength * sideLength > MAX_SEARCH_CELLS) {
+            return place(answerWithoutSearch());
+        }
+        long start = System.nanoTime();
+        Tree[] trees = new Tree[parallelism == Parallelism.TREE ? 1 : threads];
+        // every tree has room for the children of its root at least
+        int capacity = Math.max(MAX_TREE_NODES / trees.length, sideLength * sideLength + 1);
+        for (int i = 0; i < trees.length; i++) {
+            trees[i] = new Tree(capacity);
+        }
+        Search[] searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(board, getToken(), trees[i % trees.length], nextSeed());
+        }
+        int playouts = search(searches, start + timeBudgetMillis * NANOS_PER_MILLI);
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        this.playoutsPerSecond = playouts * NANOS_PER_SECOND / nanos;
+        System.out.printf(PLAYOUTS_MESSAGE, NAME, playouts, threads, nanos / NANOS_PER_MILLI, playoutsPerSecond);
+        return place(mostVisitedMove(trees, sideLength * sideLength));
+    }
+
+    /**
+     * Runs the given searches, each on a thread of its own, and waits for all of them.
+     *
+     * @return the number of playouts of all searches together
+     */
+    private synchronized int search(Search[] searches, long deadline) {
+        AtomicInteger playouts = new AtomicInteger();
+        // a single search runs on the thread of the game
+        if (searches.length == 1) {
+            return searches[0].run(deadline, playouts);
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(searches.length);
+        }
+        int sum = 0;
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (Search search : searches) {
+            tasks.add(pool.submit(() -> search.run(deadline, playouts)));
+        }
+        for (ForkJoinTask<Integer> task : tasks) {
+            sum += task.join();
+        }
+        return sum;
+    }
+
+    /**
+     * Shuts down the threads of the searches, a later search starts new ones.
+     */
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private long nextSeed() {
+        randomState ^= randomState >>> RANDOM_SHIFT_A;
+        randomState ^= randomState << RANDOM_SHIFT_B;
+        randomState ^= randomState >>> RANDOM_SHIFT_C;
+        return randomState * RANDOM_MULTIPLIER;
+    }
+
+    /**
+     * Gets the move whose root nodes were visited most in all given trees together.
+     */
+    private static int mostVisitedMove(Tree[] trees, int cellCount) {
+        int[] visitsPerCell = new int[cellCount];
+        for (Tree tree : trees) {
+            int firstChild = tree.get(ROOT, FIRST_CHILD);
+            for (int child = firstChild; child < firstChild + tree.get(ROOT, CHILD_COUNT); child++) {
+                visitsPerCell[tree.get(child, MOVE)] += tree.get(child, VISITS);
+            }
+        }
+        int firstChild = trees[0].get(ROOT, FIRST_CHILD);
+        int best = trees[0].get(firstChild, MOVE);
+        for (int child = firstChild; child < firstChild + trees[0].get(ROOT, CHILD_COUNT); child++) {
+            int move = trees[0].get(child, MOVE);
+            if (visitsPerCell[move] > visitsPerCell[best]) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The search tree of one move, which can be searched by several threads at once. Every node holds its move,
+     * its first child, its number of children and the results counted for it, and the children of a node take up
+     * a block of consecutive nodes. The nodes are stored in chunks allocated when they are first needed,
+     * and all results are counted atomically, so no thread ever waits for another.
+     */
+    private static final class Tree {
+
+        private final int capacity;
+        private final AtomicReferenceArray<AtomicIntegerArray> chunks;
+        private final AtomicInteger nodeCount = new AtomicInteger();
+
+        /**
+         * Instantiates a new tree with the root only.
+         *
+         * @param capacity the maximum number of nodes
+         */
+        Tree(int capacity) {
+            this.capacity = capacity;
+            this.chunks = new AtomicReferenceArray<>((capacity >>> CHUNK_SHIFT) + 1);
+            add(1);
+            set(ROOT, MOVE, NO_INDEX);
+        }
+
+        /**
+         * Adds the given number of nodes without children to the tree.
+         *
+         * @return the index of the first added node, or NO_INDEX if the tree is full
+         */
+        int add(int count) {
+            int first;
+            do {
+                first = nodeCount.get();
+                if (first > capacity - count) {
+                    return NO_INDEX;
+                }
+            } while (!nodeCount.compareAndSet(first, first + count));
+            for (int chunk = first >>> CHUNK_SHIFT; chunk <= (first + count - 1) >>> CHUNK_SHIFT; chunk++) {
+                if (chunks.get(chunk) == null) {
+                    chunks.compareAndSet(chunk, null, new AtomicIntegerArray(CHUNK_SIZE * NODE_FIELDS));
+                }
+            }
+            return first;
+        }
+
+        /**
+         * Claims a node without children for the thread that adds them, no other thread can claim it afterwards.
+         *
+         * @return true if the node was claimed, false if it has children or is claimed by another thread
+         */
+        boolean claim(int node) {
+            return chunkOf(node).compareAndSet(offsetOf(node, FIRST_CHILD), NO_CHILDREN, NO_INDEX);
+        }
+
+        int get(int node, int field) {
+            return chunkOf(node).get(offsetOf(node, field));
+        }
+
+        void set(int node, int field, int value) {
+            chunkOf(node).set(offsetOf(node, field), value);
+        }
+
+        void increment(int node, int field) {
+            chunkOf(node).getAndIncrement(offsetOf(node, field));
+        }
+
+        private AtomicIntegerArray chunkOf(int node) {
+            return chunks.get(node >>> CHUNK_SHIFT);
+        }
+
+        private static int offsetOf(int node, int field) {
+            return (node & CHUNK_MASK) * NODE_FIELDS + field;
+        }
+
+    }
+
+    /**
+     * A search of one thread in a tree, together with the position the search is at. A node gets its children
+     * once it was reached a few times, one for every empty cell. Besides its own results, every node counts the
+     * results of all iterations in which its move was made by the same player later on, which rates the moves
+     * that were hardly searched yet. A node is counted as visited and lost on the way down already,
+     * so other threads searching the same tree prefer other moves until the playout is finished.
+     */
+    private final class Search {
+
+        private final Tree tree;
+        private final Entry rootToken;
+        private final Playout position;
+        private final int[] path;
+
+        Search(BoardView board, Entry rootToken, Tree tree, long seed) {
+            this.tree = tree;
+            this.rootToken = rootToken;
+            this.position = new Playout(board.getSideLength(), seed);
+            for (int cell = 0; cell < board.getCellCount(); cell++) {
+                Entry entry = board.getEntry(cell);
+                if (entry != Entry.EMPTY) {
+                    position.play(cell, entry);
+                }
+            }
+            position.markStart();
+            this.path = new int[position.getEmptyCount() + 1];
+            // the first search of a tree adds the children of the root
+            if (tree.get(ROOT, FIRST_CHILD) == NO_CHILDREN) {
+                expand(ROOT);
+            }
+        }
+
+        /**
+         * Runs the search until its budget is used up.
+         *
+         * @param deadline the time to stop at, in nanoseconds, used if there is no playout budget
+         * @param playouts the playouts started by all searches of this move so far
+         * @return the number of playouts of this search
+         */
+        int run(long deadline, AtomicInteger playouts) {
+            int ownPlayouts = 0;
+            // without a playout budget, every search runs at least one round of playouts before checking the time
+            while (playoutBudget == NO_PLAYOUT_BUDGET
+                    ? ownPlayouts == 0 || ownPlayouts % TIME_CHECK_INTERVAL != 0 || System.nanoTime() < deadline
+                    : playouts.getAndIncrement() < playoutBudget) {
+                iterate();
+                ownPlayouts++;
+            }
+            return ownPlayouts;
+        }
+
+        private void iterate() {
+            position.reset();
+            Entry token = rootToken;
+            int node = ROOT;
+            int depth = 0;
+            path[0] = node;
+            tree.increment(node, VISITS);
+            while (position.getEmptyCount() > 0) {
+                int firstChild = tree.get(node, FIRST_CHILD);
+                if (firstChild == NO_CHILDREN && tree.get(node, VISITS) > EXPANSION_THRESHOLD) {
+                    firstChild = expand(node);
+                }
+                // a node without children, or whose children are just added by another thread, is played out
+                if (firstChild == NO_CHILDREN || firstChild == NO_INDEX) {
+                    break;
+                }
+                node = select(node, firstChild);
+                tree.increment(node, VISITS);
+                position.play(tree.get(node, MOVE), token);
+                path[++depth] = node;
+                token = opponentOf(token);
+            }
+            Entry winner = position.finish(token, tree.get(node, MOVE));
+            // the player to move at the root makes the moves at odd depths
+            Entry mover = rootToken;
+            for (int i = 0; i <= depth; i++) {
+                int current = path[i];
+                if (i > 0 && winner != mover) {
+                    tree.increment(current, WINS);
+                }
+                // every move of the player to move here counts for the move as a child, as the board is full
+                int firstChild = tree.get(current, FIRST_CHILD);
+                if (firstChild != NO_CHILDREN && firstChild != NO_INDEX) {
+                    for (int child = firstChild; child < firstChild + tree.get(current, CHILD_COUNT); child++) {
+                        if (position.getEntry(tree.get(child, MOVE)) == mover) {
+                            tree.increment(child, ALL_MOVES_VISITS);
+                            if (winner == mover) {
+                                tree.increment(child, ALL_MOVES_WINS);
+                            }
+                        }
+                    }
+                }
+                mover = opponentOf(mover);
+            }
+        }
+
+        /**
+         * Selects the child with the best value, which mixes the results of its own iterations with those of all
+         * iterations its move was made in, trusting the own results more the more there are.
+         */
+        private int select(int node, int firstChild) {
+            double logVisits = Math.log(tree.get(node, VISITS) + 1);
+            int best = NO_INDEX;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = firstChild; child < firstChild + tree.get(node, CHILD_COUNT); child++) {
+                int ownVisits = tree.get(child, VISITS);
+                int otherVisits = tree.get(child, ALL_MOVES_VISITS);
+                double value;
+                if (ownVisits + otherVisits == 0) {
+                    value = FIRST_PLAY_VALUE;
+                } else {
+                    double weight = otherVisits / (ownVisits + otherVisits + ALL_MOVES_BIAS * ownVisits * otherVisits);
+                    double ownValue = ownVisits == 0 ? 0 : (double) tree.get(child, WINS) / ownVisits;
+                    double otherValue = otherVisits == 0 ? 0 : (double) tree.get(child, ALL_MOVES_WINS) / otherVisits;
+                    value = (1 - weight) * ownValue + weight * otherValue
+                            + EXPLORATION * Math.sqrt(logVisits / (ownVisits + 1));
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Adds a child for every empty cell to a node, unless another thread does so already.
+         *
+         * @return the first child, or NO_INDEX if the node was claimed by another thread or the tree is full
+         */
+        private int expand(int node) {
+            if (!tree.claim(node)) {
+                return NO_INDEX;
+            }
+            int emptyCount = position.getEmptyCount();
+            int firstChild = tree.add(emptyCount);
+            // a node whose children don't fit into the tree stays claimed, so it is never expanded again
+            if (firstChild == NO_INDEX) {
+                return NO_INDEX;
+            }
+            for (int i = 0; i < emptyCount; i++) {
+                tree.set(firstChild + i, MOVE, position.getEmptyCell(i));
+            }
+            tree.set(node, CHILD_COUNT, emptyCount);
+            // the children are complete before other threads see them
+            tree.set(node, FIRST_CHILD, firstChild);
+            return firstChild;
+        }
+
+        private Entry opponentOf(Entry token) {
+            return token == Entry.X ? Entry.O : Entry.X;
+        }
+
+    }
+
+}
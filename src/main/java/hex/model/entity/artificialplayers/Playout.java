@@ -0,0 +1,243 @@
+package hex.model.entity.artificialplayers;
+
+import hex.model.Entry;
+import hex.model.NeighbourTable;
+
+/**
+ * This class represents a position of Hex that is finished by random moves. A game of Hex can't end in a draw,
+ * so the board is filled up completely and the winner is found by a single flood fill at the end,
+ * instead of checking for a win after every move. The empty cells are kept in a list a random cell is drawn from
+ * and removed in constant time, which shuffles them one by one. A move into a bridge, two tokens of a player
+ * with two empty cells between them, is answered by taking the other cell, so random moves don't cut connections
+ * every player would keep. Nothing is allocated after the playout was instantiated.
+ *
+ * @author unxgx
+ */
+public final class Playout {
+
+    /**
+     * The move a position without any move so far was reached by.
+     */
+    public static final int NO_MOVE = -1;
+
+    private static final Entry[] ENTRIES = Entry.values();
+    private static final byte EMPTY = (byte) Entry.EMPTY.ordinal();
+    private static final byte X = (byte) Entry.X.ordinal();
+    // the entry of the cell every neighbour outside the board refers to, which is neither empty nor any token
+    private static final byte OUTSIDE = (byte) Entry.WINNING.ordinal();
+    // the six neighbours of a hexagon in the order around it: north, northeast, east, south, southwest and west,
+    // so two neighbours next to each other in this order are also neighbours of each other
+    private static final int[] RING_X_OFFSETS = {0, 1, 1, 0, -1, -1};
+    private static final int[] RING_Y_OFFSETS = {-1, -1, 0, 1, 1, 0};
+    private static final int RING_SIZE = 6;
+    // multiplier and shifts of the xorshift64* generator
+    private static final long RANDOM_MULTIPLIER = 0x2545F4914F6CDD1DL;
+    private static final int RANDOM_SHIFT_A = 12;
+    private static final int RANDOM_SHIFT_B = 25;
+    private static final int RANDOM_SHIFT_C = 27;
+    private static final int RANDOM_BITS = 32;
+
+    private final int sideLength;
+    private final int cellCount;
+    private final NeighbourTable neighbours;
+    // the neighbours of every cell in the order around it, the cell behind the last cell outside the board
+    private final int[] rings;
+    private final byte[] startCells;
+    private final int[] startEmptyCells;
+    private final int[] startSlots;
+    private int startEmptyCount;
+    // the ordinals of the entries of the cells
+    private final byte[] cells;
+    private final int[] emptyCells;
+    // the position of every empty cell in the list of empty cells
+    private final int[] slots;
+    private int emptyCount;
+    // the cells the flood fill still has to visit, and the cells it visited, marked by the number of the fill
+    private final int[] stack;
+    private final int[] marks;
+    private int fills;
+    private long randomState;
+
+    /**
+     * Instantiates a new playout on an empty board, which is also the position it is reset to.
+     *
+     * @param sideLength the side length of the board
+     * @param seed       the seed of the random moves
+     */
+    public Playout(int sideLength, long seed) {
+        this.sideLength = sideLength;
+        this.cellCount = sideLength * sideLength;
+        this.neighbours = NeighbourTable.of(sideLength);
+        this.rings = new int[cellCount * RING_SIZE];
+        for (int cell = 0; cell < cellCount; cell++) {
+            for (int i = 0; i < RING_SIZE; i++) {
+                int column = cell % sideLength + RING_X_OFFSETS[i];
+                int row = cell / sideLength + RING_Y_OFFSETS[i];
+                boolean onBoard = column >= 0 && column < sideLength && row >= 0 && row < sideLength;
+                rings[cell * RING_SIZE + i] = onBoard ? row * sideLength + column : cellCount;
+            }
+        }
+        this.startCells = new byte[cellCount];
+        this.startEmptyCells = new int[cellCount];
+        this.startSlots = new int[cellCount];
+        this.cells = new byte[cellCount + 1];
+        cells[cellCount] = OUTSIDE;
+        this.emptyCells = new int[cellCount];
+        this.slots = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            emptyCells[cell] = cell;
+            slots[cell] = cell;
+        }
+        this.emptyCount = cellCount;
+        this.stack = new int[cellCount];
+        this.marks = new int[cellCount];
+        // zero would stay zero forever
+        this.randomState = seed | 1;
+        markStart();
+    }
+
+    /**
+     * Places a token on an empty cell.
+     *
+     * @param index the index of the cell
+     * @param token the token to place
+     */
+    public void play(int index, Entry token) {
+        cells[index] = (byte) token.ordinal();
+        int slot = slots[index];
+        int last = emptyCells[--emptyCount];
+        emptyCells[slot] = last;
+        slots[last] = slot;
+    }
+
+    /**
+     * Keeps the current position as the one the playout is reset to.
+     */
+    public void markStart() {
+        System.arraycopy(cells, 0, startCells, 0, cellCount);
+        System.arraycopy(emptyCells, 0, startEmptyCells, 0, emptyCount);
+        System.arraycopy(slots, 0, startSlots, 0, cellCount);
+        startEmptyCount = emptyCount;
+    }
+
+    /**
+     * Resets the playout to the position kept by {@link #markStart()}.
+     */
+    public void reset() {
+        System.arraycopy(startCells, 0, cells, 0, cellCount);
+        System.arraycopy(startEmptyCells, 0, emptyCells, 0, startEmptyCount);
+        System.arraycopy(startSlots, 0, slots, 0, cellCount);
+        emptyCount = startEmptyCount;
+    }
+
+    /**
+     * Gets the entry of a cell.
+     *
+     * @param index the index of the cell
+     * @return the entry of the cell
+     */
+    public Entry getEntry(int index) {
+        return ENTRIES[cells[index]];
+    }
+
+    /**
+     * Gets the number of empty cells.
+     *
+     * @return the number of empty cells
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Gets an empty cell. The order of the empty cells changes with every move.
+     *
+     * @param i the position of the cell in the list of empty cells, less than the number of empty cells
+     * @return the index of the cell
+     */
+    public int getEmptyCell(int i) {
+        return emptyCells[i];
+    }
+
+    /**
+     * Fills the board by random moves, starting with the given token, and finds the winner.
+     *
+     * @param token    the token to move first
+     * @param lastMove the index of the cell of the last move, or {@link #NO_MOVE}
+     * @return the token of the winner
+     */
+    public Entry finish(Entry token, int lastMove) {
+        Entry current = token;
+        int previousMove = lastMove;
+        while (emptyCount > 0) {
+            int cell = previousMove == NO_MOVE ? NO_MOVE : saveBridge(previousMove, (byte) current.ordinal());
+            if (cell == NO_MOVE) {
+                cell = emptyCells[nextRandom(emptyCount)];
+            }
+            play(cell, current);
+            previousMove = cell;
+            current = current == Entry.X ? Entry.O : Entry.X;
+        }
+        return getWinner();
+    }
+
+    /**
+     * Finds the winner of a full board, which is X if its tokens connect north and south and O otherwise.
+     *
+     * @return the token of the winner
+     */
+    public Entry getWinner() {
+        fills++;
+        int size = 0;
+        for (int cell = 0; cell < sideLength; cell++) {
+            if (cells[cell] == X) {
+                marks[cell] = fills;
+                stack[size++] = cell;
+            }
+        }
+        int southRow = cellCount - sideLength;
+        while (size > 0) {
+            int cell = stack[--size];
+            if (cell >= southRow) {
+                return Entry.X;
+            }
+            for (int i = 0; i < neighbours.degree(cell); i++) {
+                int neighbour = neighbours.neighbour(cell, i);
+                if (cells[neighbour] == X && marks[neighbour] != fills) {
+                    marks[neighbour] = fills;
+                    stack[size++] = neighbour;
+                }
+            }
+        }
+        return Entry.O;
+    }
+
+    /**
+     * Finds the cell that keeps a bridge of the given token which the last move went into.
+     *
+     * @return the index of the other empty cell of the bridge, or NO_MOVE if the move went into no bridge
+     */
+    private int saveBridge(int lastMove, byte token) {
+        int ring = lastMove * RING_SIZE;
+        byte before = cells[rings[ring + RING_SIZE - 1]];
+        byte current = cells[rings[ring]];
+        for (int i = 0; i < RING_SIZE; i++) {
+            byte after = cells[rings[ring + (i + 1) % RING_SIZE]];
+            if (current == EMPTY && before == token && after == token) {
+                return rings[ring + i];
+            }
+            before = current;
+            current = after;
+        }
+        return NO_MOVE;
+    }
+
+    private int nextRandom(int bound) {
+        randomState ^= randomState >>> RANDOM_SHIFT_A;
+        randomState ^= randomState << RANDOM_SHIFT_B;
+        randomState ^= randomState >>> RANDOM_SHIFT_C;
+        long random = (randomState * RANDOM_MULTIPLIER) >>> RANDOM_BITS;
+        return (int) ((random * bound) >>> RANDOM_BITS);
+    }
+
+}
@@ -0,0 +1,123 @@
+package hex.model.entity.artificialplayers;
+
+/**
+ * This class represents a transposition table of a fixed size, which keeps the results of searched positions
+ * by their Zobrist hash. An entry is two longs, its data and its data combined with the hash by exclusive or,
+ * so an entry torn by two threads writing at once doesn't match its hash anymore and is ignored instead of
+ * being read wrongly. The table doesn't lock anything. An entry is replaced by a deeper result, or by any result
+ * of a later search.
+ *
+ * @author unxgx
+ */
+final class TranspositionTable {
+
+    /**
+     * The bound of an entry whose score is exact.
+     */
+    static final int EXACT = 1;
+    /**
+     * The bound of an entry whose score is at least the real score.
+     */
+    static final int UPPER = 2;
+    /**
+     * The bound of an entry whose score is at most the real score.
+     */
+    static final int LOWER = 3;
+    /**
+     * The data of a position that isn't in the table.
+     */
+    static final long MISSING = 0;
+
+    private static final int SCORE_BITS = 16;
+    private static final int DEPTH_SHIFT = 16;
+    private static final int BOUND_SHIFT = 24;
+    private static final int GENERATION_SHIFT = 26;
+    private static final int MOVE_SHIFT = 34;
+    private static final long DEPTH_MASK = 0xFF;
+    private static final long BOUND_MASK = 0x3;
+    private static final long GENERATION_MASK = 0xFF;
+    private static final int LONGS_PER_ENTRY = 2;
+
+    private final long[] entries;
+    private final int indexMask;
+    private int generation;
+
+    /**
+     * Instantiates a new empty table.
+     *
+     * @param entryBits the base two logarithm of the number of entries
+     */
+    TranspositionTable(int entryBits) {
+        this.entries = new long[LONGS_PER_ENTRY << entryBits];
+        this.indexMask = (1 << entryBits) - 1;
+    }
+
+    /**
+     * Starts a new search, whose results replace those of earlier searches.
+     */
+    void nextGeneration() {
+        generation = (int) ((generation + 1) & GENERATION_MASK);
+    }
+
+    /**
+     * Gets the data of a position.
+     *
+     * @param hash the hash of the position
+     * @return the data, or MISSING if the position isn't in the table
+     */
+    long probe(long hash) {
+        int index = LONGS_PER_ENTRY * ((int) hash & indexMask);
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == hash ? data : MISSING;
+    }
+
+    /**
+     * Stores the result of a position.
+     *
+     * @param hash  the hash of the position
+     * @param move  the index of the best move, or a negative number if there is none
+     * @param depth the depth the position was searched to, at most 255
+     * @param bound the bound of the score
+     * @param score the score, fitting into a short
+     */
+    void store(long hash, int move, int depth, int bound, int score) {
+        int index = LONGS_PER_ENTRY * ((int) hash & indexMask);
+        long stored = entries[index + 1];
+        boolean samePosition = (entries[index] ^ stored) == hash;
+        if (stored != MISSING && getGeneration(stored) == generation && getDepth(stored) > depth
+                && !samePosition) {
+            return;
+        }
+        // a position without a best move keeps the one found by an earlier search
+        int storedMove = move + 1;
+        if (move < 0 && samePosition) {
+            storedMove = getMove(stored) + 1;
+        }
+        long data = (score & ((1L << SCORE_BITS) - 1)) | (long) depth << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT | (long) generation << GENERATION_SHIFT
+                | (long) storedMove << MOVE_SHIFT;
+        entries[index] = hash ^ data;
+        entries[index + 1] = data;
+    }
+
+    static int getScore(long data) {
+        return (short) data;
+    }
+
+    static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT & DEPTH_MASK);
+    }
+
+    static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT & BOUND_MASK);
+    }
+
+    static int getMove(long data) {
+        return (int) (data >>> MOVE_SHIFT) - 1;
+    }
+
+    private static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT & GENERATION_MASK);
+    }
+
+}
@@ -1,12 +1,23 @@
 package hex.ui;
 
+import hex.model.GameArchive;
 import hex.model.Hub;
+import hex.model.InvalidGameDataException;
+import hex.model.SessionJournal;
+import hex.model.SessionSpill;
 import hex.model.entity.HumanPlayer;
 import hex.model.entity.Player;
 import hex.model.Entry;
+import hex.model.entity.artificialplayers.AlphaBetaAI;
 import hex.model.entity.artificialplayers.BogoAI;
 import hex.model.entity.artificialplayers.HeroAI;
+import hex.model.entity.artificialplayers.MctsAI;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +33,21 @@ public final class Application {
     private static final String ERROR_ILLEGAL_COMMAND_ARGUMENTS = "Error: Illegal command arguments.";
     private static final String ERROR_EQUAL_PLAYER_NAMES = "Error: Player names must be different.";
     private static final String ERROR_AI_PLAYER_ONE = "Error: AI can't be player one.";
+    private static final String ERROR_ARCHIVE_NOT_OPENED = "Error: The archive %s could not be opened.%n";
+    private static final String ERROR_JOURNAL_NOT_OPENED = "Error: The journal %s could not be opened.%n";
+    private static final String ERROR_NOT_CLOSED = "Error: The files of %s could not be closed.%n";
+    private static final String ERROR_SPILL_NOT_OPENED = "Error: The spill directory %s could not be opened.%n";
+    private static final String ERROR_ILLEGAL_MEMORY_BUDGET = "Error: The memory budget must be a positive number of MiB.";
+    // the base path of the archive finished games are appended to, games aren't archived if it isn't set
+    private static final String ARCHIVE_PROPERTY = "hex.archive";
+    // the base path of the journal the sessions are rebuilt from and written to, they aren't journaled if it isn't set
+    private static final String JOURNAL_PROPERTY = "hex.journal";
+    // the memory the games may take in MiB, idle games are spilled to disk beyond it, all are kept if it isn't set
+    private static final String MEMORY_PROPERTY = "hex.memory";
+    // the directory idle games are spilled to, a temporary directory if it isn't set
+    private static final String SPILL_PROPERTY = "hex.spill";
+    private static final String SPILL_DIRECTORY_PREFIX = "hex-spill";
+    private static final int BYTES_PER_MIB_SHIFT = 20;
     private static final String ARGUMENT_AUTO_PRINT = "auto-print";
     private static final int ODD_NUMBERS_MODULO = 2;
     private static final int ARGS_MIN_COUNT = 3;
@@ -32,9 +58,21 @@ public final class Application {
     private static final int INDEX_ARG_PLAYER_ONE_NAME = 1;
     private static final int INDEX_ARG_PLAYER_TWO_NAME = 2;
     private static final int INDEX_ARG_AUTO_PRINT = 3;
-    private static final List<String> ARTIFICIAL_PLAYERS = new ArrayList<>(Arrays.asList("BogoAI", "HeroAI"));
+    private static final List<String> ARTIFICIAL_PLAYERS = new ArrayList<>(Arrays.asList("BogoAI", "HeroAI", "MctsAI",
+            "AlphaBetaAI"));
     private static final int BOGO_AI_INDEX = 0;
     private static final int HERO_AI_INDEX = 1;
+    private static final int MCTS_AI_INDEX = 2;
+    private static final int ALPHA_BETA_AI_INDEX = 3;
+    // the time MctsAI and AlphaBetaAI search for a move in milliseconds, one second if it isn't set
+    private static final String AI_TIME_PROPERTY = "hex.ai.millis";
+    // the number of playouts MctsAI runs for a move instead of searching for a time
+    private static final String AI_PLAYOUTS_PROPERTY = "hex.ai.playouts";
+    // the number of threads MctsAI searches on, all cores if it isn't set
+    private static final String AI_THREADS_PROPERTY = "hex.ai.threads";
+    private static final int AI_THREADS_MAX = 1024;
+    // whether the threads of MctsAI search one tree together or a tree each, "tree" or "root"
+    private static final String AI_PARALLELISM_PROPERTY = "hex.ai.parallelism";
 
 
     private Application() {
@@ -81,10 +119,92 @@ public final class Application {
             return;
         }
 
-        Hub hub = new Hub(sideLength, playerOne, playerTwo, autoPrint, useAI);
+        String journalPath = System.getProperty(JOURNAL_PROPERTY);
+        SessionJournal journal = null;
+        Hub hub;
+        if (journalPath == null) {
+            hub = new Hub(sideLength, playerOne, playerTwo, autoPrint, useAI);
+        } else {
+            // gives error if the journal can't be opened or its games can't be rebuilt
+            try {
+                journal = SessionJournal.open(Path.of(journalPath));
+            } catch (IOException | InvalidPathException | InvalidGameDataException e) {
+                System.err.printf(ERROR_JOURNAL_NOT_OPENED, journalPath);
+                return;
+            }
+            try {
+                hub = Hub.recover(sideLength, playerOne, playerTwo, autoPrint, useAI, journal);
+            } catch (InvalidGameDataException e) {
+                System.err.printf(ERROR_JOURNAL_NOT_OPENED, journalPath);
+                close(journal, journalPath);
+                return;
+            }
+        }
+        String archivePath = System.getProperty(ARCHIVE_PROPERTY);
+        GameArchive archive = null;
+        if (archivePath != null) {
+            // gives error if the archive can't be opened
+            try {
+                archive = GameArchive.open(Path.of(archivePath));
+            } catch (IOException | InvalidPathException | InvalidGameDataException e) {
+                System.err.printf(ERROR_ARCHIVE_NOT_OPENED, archivePath);
+                close(journal, journalPath);
+                return;
+            }
+            hub.setArchive(archive);
+        }
+        String memoryBudget = System.getProperty(MEMORY_PROPERTY);
+        String spillPath = System.getProperty(SPILL_PROPERTY);
+        SessionSpill spill = null;
+        if (memoryBudget != null) {
+            long budget = getMemoryBudget(memoryBudget);
+            // gives error if the memory budget isn't a positive number
+            if (budget <= 0) {
+                System.err.println(ERROR_ILLEGAL_MEMORY_BUDGET);
+                close(archive, archivePath);
+                close(journal, journalPath);
+                return;
+            }
+            // gives error if the spill directory can't be created
+            try {
+                Path spillDirectory = spillPath == null ? Files.createTempDirectory(SPILL_DIRECTORY_PREFIX)
+                        : Path.of(spillPath);
+                spillPath = spillDirectory.toString();
+                spill = SessionSpill.open(spillDirectory);
+            } catch (IOException | InvalidPathException e) {
+                System.err.printf(ERROR_SPILL_NOT_OPENED, spillPath);
+                close(archive, archivePath);
+                close(journal, journalPath);
+                return;
+            }
+            hub.setSpill(spill, budget);
+        }
         hub.start();
+        close(spill, spillPath);
+        close(archive, archivePath);
+        close(journal, journalPath);
     }
 
+    private static long getMemoryBudget(String megabytes) {
+        // an illegal number is reported like a budget of zero
+        try {
+            return Long.parseLong(megabytes) << BYTES_PER_MIB_SHIFT;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void close(Closeable files, String path) {
+        if (files == null) {
+            return;
+        }
+        // gives error if the files can't be written completely
+        try {
+            files.close();
+        } catch (IOException e) {
+            System.err.printf(ERROR_NOT_CLOSED, path);
+        }
+    }
 
     private static int getSideLength(String args) throws InvalidArgsArgumentException {
         int sideLength;
@@ -119,11 +239,55 @@ public final class Application {
                 return new BogoAI(Entry.O);
             } else if (args.equals(ARTIFICIAL_PLAYERS.get(HERO_AI_INDEX))) {
                 return new HeroAI(Entry.O);
+            } else if (args.equals(ARTIFICIAL_PLAYERS.get(MCTS_AI_INDEX))) {
+                long timeBudget = getBudget(AI_TIME_PROPERTY, MctsAI.DEFAULT_TIME_BUDGET_MILLIS);
+                long playoutBudget = getBudget(AI_PLAYOUTS_PROPERTY, MctsAI.NO_PLAYOUT_BUDGET);
+                long threads = getBudget(AI_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+                // throws exception if a budget is too large or there is no thread
+                if (playoutBudget > Integer.MAX_VALUE || threads < 1 || threads > AI_THREADS_MAX) {
+                    throw new InvalidArgsArgumentException();
+                }
+                return new MctsAI(Entry.O, timeBudget, (int) playoutBudget, (int) threads, getParallelism());
+            } else if (args.equals(ARTIFICIAL_PLAYERS.get(ALPHA_BETA_AI_INDEX))) {
+                return new AlphaBetaAI(Entry.O, getBudget(AI_TIME_PROPERTY, AlphaBetaAI.DEFAULT_TIME_BUDGET_MILLIS));
             }
         }
         return new HumanPlayer(args, Entry.O);
     }
 
+    private static long getBudget(String property, long defaultBudget) throws InvalidArgsArgumentException {
+        String budget = System.getProperty(property);
+        if (budget == null) {
+            return defaultBudget;
+        }
+        long parsedBudget;
+        // throws exception if the budget is not a number
+        try {
+            parsedBudget = Long.parseLong(budget);
+        } catch (NumberFormatException e) {
+            throw new InvalidArgsArgumentException();
+        }
+        // throws exception if the budget is negative
+        if (parsedBudget < 0) {
+            throw new InvalidArgsArgumentException();
+        }
+        return parsedBudget;
+    }
+
+    private static MctsAI.Parallelism getParallelism() throws InvalidArgsArgumentException {
+        String parallelism = System.getProperty(AI_PARALLELISM_PROPERTY);
+        if (parallelism == null) {
+            return MctsAI.Parallelism.TREE;
+        }
+        // throws exception if there is no such way to share the search
+        for (MctsAI.Parallelism value : MctsAI.Parallelism.values()) {
+            if (value.name().equalsIgnoreCase(parallelism)) {
+                return value;
+            }
+        }
+        throw new InvalidArgsArgumentException();
+    }
+
     private static boolean getAutoPrint(String args) throws IllegalArgumentException {
         if (!args.equals(ARGUMENT_AUTO_PRINT)) {
             throw new IllegalArgumentException();
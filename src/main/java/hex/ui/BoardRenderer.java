@@ -0,0 +1,218 @@
+package hex.ui;
+
+import hex.model.BoardView;
+import hex.model.Entry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * This class renders a game board row by row straight into a {@link Writer}, in the same format as
+ * {@link hex.model.Board#toString()}. Only a single row buffer is used and reused for every row,
+ * so printing a large board never builds the whole board as one string. For large boards a rectangular region
+ * or a downsampled overview can be rendered instead, both read straight from the board.
+ *
+ * @author unxgx
+ */
+public final class BoardRenderer {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final String LINE_SEPERATOR = System.lineSeparator();
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final char SPACE = ' ';
+    private static final char BALANCED_TILE = '+';
+
+    private BoardRenderer() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Prints the board on the console.
+     *
+     * @param board the board to print
+     */
+    public static void print(BoardView board) {
+        toConsole(writer -> render(board, writer));
+    }
+
+    /**
+     * Prints a rectangular region of the board on the console, the cells within the given radius of a cell
+     * in both directions, cut off at the edges of the board.
+     *
+     * @param board  the board to print
+     * @param col    the x-coordinate of the center of the region
+     * @param row    the y-coordinate of the center of the region
+     * @param radius the number of cells to show on each side of the center
+     */
+    public static void printViewport(BoardView board, int col, int row, int radius) {
+        toConsole(writer -> renderViewport(board, writer, col, row, radius));
+    }
+
+    /**
+     * Prints a downsampled overview of the board on the console.
+     *
+     * @param board    the board to print
+     * @param tileSize the side length of the tiles shown as one glyph each
+     */
+    public static void printOverview(BoardView board, int tileSize) {
+        toConsole(writer -> renderOverview(board, writer, tileSize));
+    }
+
+    /**
+     * Writes the board row by row into the writer. Every row is indented by its number,
+     * and the cells of a row are separated by a space.
+     *
+     * @param board  the board to render
+     * @param writer the writer to render the board into
+     * @throws IOException if the writer fails
+     */
+    public static void render(BoardView board, Writer writer) throws IOException {
+        int sideLength = board.getSideLength();
+        renderRegion(board, writer, 0, 0, sideLength - 1, sideLength - 1);
+    }
+
+    /**
+     * Writes a rectangular region of the board into the writer, in the same format as the whole board.
+     * The region holds the cells within the given radius of a cell in both directions, cut off at the edges of the
+     * board, and its first row isn't indented.
+     *
+     * @param board  the board to render
+     * @param writer the writer to render the region into
+     * @param col    the x-coordinate of the center of the region
+     * @param row    the y-coordinate of the center of the region
+     * @param radius the number of cells to show on each side of the center
+     * @throws IOException if the writer fails
+     */
+    public static void renderViewport(BoardView board, Writer writer, int col, int row, int radius) throws IOException {
+        int last = board.getSideLength() - 1;
+        // a radius beyond the side length shows the whole board anyway
+        int reach = Math.min(radius, last + 1);
+        renderRegion(board, writer, Math.max(0, col - reach), Math.max(0, row - reach),
+                Math.min(last, col + reach), Math.min(last, row + reach));
+    }
+
+    /**
+     * Writes a downsampled overview of the board into the writer. Every tile of {@code tileSize} times
+     * {@code tileSize} cells is shown as one glyph: {@code *} if it holds a cell of a winning path,
+     * {@code .} if it is empty, {@code +} if both players own as many cells of it,
+     * and otherwise the token of the player owning more cells, in upper case if that player covers at least half
+     * of the tile and in lower case if not. The tiles are laid out like the cells of the board.
+     *
+     * @param board    the board to render
+     * @param writer   the writer to render the overview into
+     * @param tileSize the side length of the tiles shown as one glyph each
+     * @throws IOException if the writer fails
+     */
+    public static void renderOverview(BoardView board, Writer writer, int tileSize) throws IOException {
+        int sideLength = board.getSideLength();
+        // a tile larger than the board shows the whole board, and keeps the bounds of the tiles from overflowing
+        int tileSide = Math.max(1, Math.min(tileSize, sideLength));
+        int tiles = (sideLength + tileSide - 1) / tileSide;
+        if (tiles == 0) {
+            return;
+        }
+        // the cells of each player and the winning cells in the tiles of the current row of tiles
+        int[] cellsOfX = new int[tiles];
+        int[] cellsOfO = new int[tiles];
+        int[] winningCells = new int[tiles];
+        char[] rowBuffer = new char[(tiles - 1) + (2 * tiles - 1) + LINE_SEPERATOR.length()];
+        for (int tileRow = 0; tileRow < tiles; tileRow++) {
+            Arrays.fill(cellsOfX, 0);
+            Arrays.fill(cellsOfO, 0);
+            Arrays.fill(winningCells, 0);
+            int lastRow = Math.min(sideLength, (tileRow + 1) * tileSide);
+            for (int row = tileRow * tileSide; row < lastRow; row++) {
+                int offset = row * sideLength;
+                for (int col = 0; col < sideLength; col++) {
+                    Entry entry = board.getEntry(offset + col);
+                    if (entry == Entry.X) {
+                        cellsOfX[col / tileSide]++;
+                    } else if (entry == Entry.O) {
+                        cellsOfO[col / tileSide]++;
+                    } else if (entry == Entry.WINNING) {
+                        winningCells[col / tileSide]++;
+                    }
+                }
+            }
+            int length = indent(rowBuffer, tileRow);
+            for (int tile = 0; tile < tiles; tile++) {
+                if (tile > 0) {
+                    rowBuffer[length++] = SPACE;
+                }
+                int tileWidth = Math.min(sideLength, (tile + 1) * tileSide) - tile * tileSide;
+                int tileCells = (lastRow - tileRow * tileSide) * tileWidth;
+                rowBuffer[length++] = densityGlyph(cellsOfX[tile], cellsOfO[tile], winningCells[tile], tileCells);
+            }
+            writer.write(rowBuffer, 0, endRow(rowBuffer, length));
+        }
+    }
+
+    private static void renderRegion(BoardView board, Writer writer, int firstCol, int firstRow, int lastCol, int lastRow)
+            throws IOException {
+        if (firstCol > lastCol || firstRow > lastRow) {
+            return;
+        }
+        int width = lastCol - firstCol + 1;
+        int height = lastRow - firstRow + 1;
+        // the longest row is the last one: its indentation, the cells with the spaces between them and the separator
+        char[] rowBuffer = new char[(height - 1) + (2 * width - 1) + LINE_SEPERATOR.length()];
+        int sideLength = board.getSideLength();
+        for (int row = firstRow; row <= lastRow; row++) {
+            int length = indent(rowBuffer, row - firstRow);
+            int offset = row * sideLength;
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (col > firstCol) {
+                    rowBuffer[length++] = SPACE;
+                }
+                rowBuffer[length++] = board.getEntry(offset + col).getToken();
+            }
+            writer.write(rowBuffer, 0, endRow(rowBuffer, length));
+        }
+    }
+
+    private static char densityGlyph(int cellsOfX, int cellsOfO, int winningCells, int tileCells) {
+        if (winningCells > 0) {
+            return Entry.WINNING.getToken();
+        }
+        if (cellsOfX == cellsOfO) {
+            return cellsOfX == 0 ? Entry.EMPTY.getToken() : BALANCED_TILE;
+        }
+        Entry owner = cellsOfX > cellsOfO ? Entry.X : Entry.O;
+        char token = owner.getToken();
+        return 2 * Math.max(cellsOfX, cellsOfO) >= tileCells ? token : Character.toLowerCase(token);
+    }
+
+    private static int indent(char[] rowBuffer, int depth) {
+        Arrays.fill(rowBuffer, 0, depth, SPACE);
+        return depth;
+    }
+
+    private static int endRow(char[] rowBuffer, int length) {
+        LINE_SEPERATOR.getChars(0, LINE_SEPERATOR.length(), rowBuffer, length);
+        return length + LINE_SEPERATOR.length();
+    }
+
+    private static void toConsole(Rendering rendering) {
+        // the writer is only flushed, closing it would close the console
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE);
+        try {
+            rendering.renderInto(writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Something rendered into a writer.
+     */
+    @FunctionalInterface
+    private interface Rendering {
+        void renderInto(Writer writer) throws IOException;
+    }
+
+}
@@ -16,12 +16,12 @@ import java.util.ArrayList;
 public abstract class CommandHandler {
 
     private static final String COMMAND_SEPERATOR_REGEX = "\\s+";
-    private static final String NEXT_TURN_COMMANDS_REGEX = "^(swap|place|quit|new-game|switch-game)$";
+    private static final String NEXT_TURN_COMMANDS_REGEX = "^(swap|place|undo|redo|quit|new-game|switch-game|load)$";
     private static final String COMMAND_NOT_FOUND = "Error: Command %s not found%n";
     private static final String GAME_COMMAND_NOT_AVAILABLE = "Error: You can't use Command %s after winning%n";
     private final Map<String, Command> commands;
     private final Map<String, String> commandsGuide;
-    private final List<String> gameCommands = new ArrayList<>(Arrays.asList("swap", "place"));
+    private final List<String> gameCommands = new ArrayList<>(Arrays.asList("swap", "place", "redo", "hint"));
 
     /**
      * Instantiates a new command handler
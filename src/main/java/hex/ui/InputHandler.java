@@ -7,16 +7,22 @@ import hex.ui.commands.SwapCommand;
 import hex.ui.commands.NewGameCommand;
 import hex.ui.commands.QuitCommand;
 import hex.ui.commands.HistoryCommand;
+import hex.ui.commands.HintCommand;
 import hex.ui.commands.SwitchGameCommand;
 import hex.ui.commands.ListGamesCommand;
 import hex.ui.commands.PlaceCommand;
 import hex.ui.commands.PrintCommand;
+import hex.ui.commands.UndoCommand;
+import hex.ui.commands.RedoCommand;
+import hex.ui.commands.SaveCommand;
+import hex.ui.commands.LoadCommand;
 import hex.model.Hub;
 
-import java.util.Scanner;
+import java.io.IOException;
 
 /**
- * This class handles every user command for a given hex game.
+ * This class handles every user command for a given hex game. It doesn't read the input itself,
+ * the {@link Hub} hands every line to the game the user currently interacts with.
  *
  * @author unxgx
  * @author Programmieren-Team
@@ -26,14 +32,14 @@ public final class InputHandler extends CommandHandler {
     private static final String WELCOME_MESSAGE = "Welcome to %s%n";
     private static final String WINNER_MESSAGE = "%s wins!%n";
     private static final String INPUT_REQUEST = "%s's turn%n";
+    private static final String ARCHIVE_FAILED_ERROR = "Error: The game %s could not be archived%n";
 
     private boolean running;
-    private final Scanner scanner;
     private final Hex hex;
     private final Hub hub;
     private final boolean autoPrint;
     private final boolean useAI;
-    private boolean isCalledBefore = false;
+    private boolean isCalledBefore;
 
 
     /**
@@ -45,94 +51,123 @@ public final class InputHandler extends CommandHandler {
      * @param useAI     whether to use an AI as second player or not
      */
     public InputHandler(Hex hex, boolean autoPrint, Hub hub, boolean useAI) {
+        this(hex, autoPrint, hub, useAI, false);
+    }
+
+    /**
+     * Creates a new instance for a game that may have been played before, for example before it was spilled to disk.
+     *
+     * @param hex       the {@link Hex} game this instance shall be connected with
+     * @param autoPrint whether to automatically print the board after each move
+     * @param hub       the {@link Hub} this instance shall be connected with
+     * @param useAI     whether to use an AI as second player or not
+     * @param welcomed  whether the user was welcomed to the game before
+     */
+    public InputHandler(Hex hex, boolean autoPrint, Hub hub, boolean useAI, boolean welcomed) {
         this.hex = hex;
         this.hub = hub;
         initCommands();
-        scanner = new Scanner(System.in);
         this.autoPrint = autoPrint;
         this.useAI = useAI;
-
+        this.isCalledBefore = welcomed;
     }
 
     /**
-     * Starts user interaction on console.
+     * Makes this game the one the user interacts with. The turn goes on where it was left,
+     * and the AI makes its move right away if it is its turn.
      *
      * @param switchCommand whether this is the first move after a switch command, in order not to print the board
      */
-    public void interact(boolean switchCommand) {
+    public void activate(boolean switchCommand) {
         if (!isCalledBefore) {
             System.out.printf(WELCOME_MESSAGE, hex.getName());
         }
         this.isCalledBefore = true;
         this.running = true;
-        boolean firstMoveAfterSwitch = switchCommand;
-
-        while (running) {
-            if (!hex.isGameWon()) {
-                if (firstMoveAfterSwitch) {
-                    handleUserInput(switchCommand);
-                    firstMoveAfterSwitch = false;
-                } else {
-                    handleUserInput();
-                }
-                if (running) {
-                    Player winner = hex.evaluateWinner();
-                    if (winner != null) {
-                        System.out.printf(WINNER_MESSAGE, winner.getName());
-                        System.out.print(hex.getBoard());
-                        hex.setWinningPathToBack();
-                    }
-                }
-            } else {
-                handleUserInputAfterWinning();
-            }
-
-        }
-        scanner.close();
+        startTurn(!switchCommand);
     }
 
     /**
-     * a overload of interact, for the situation where it is not the first move after a switch command.
+     * a overload of activate, for the situation where it is not the first move after a switch command.
      */
-    public void interact() {
-        interact(false);
+    public void activate() {
+        activate(false);
     }
 
-    private void handleUserInputAfterWinning() {
-        boolean pendingInput = true;
-
-        while (pendingInput && scanner.hasNextLine()) {
-            String userInput = scanner.nextLine();
-            pendingInput = executeCommandAfterWinning(userInput);
+    /**
+     * Handles one line of user input for this game.
+     *
+     * @param userInput the line the user entered
+     */
+    public void handleInput(String userInput) {
+        if (hex.isGameWon()) {
+            boolean pendingInput = executeCommandAfterWinning(userInput);
+            if (!pendingInput) {
+                startTurn(true);
+            }
+            return;
+        }
+        boolean pendingInput = executeCommand(userInput);
+        if (!pendingInput) {
+            endTurn();
+            startTurn(true);
         }
     }
 
-    private void handleUserInput() {
-        handleUserInput(false);
+    /**
+     * Checks whether this game is still the one the user interacts with.
+     *
+     * @return true if the user interacts with this game, otherwise false
+     */
+    public boolean isRunning() {
+        return this.running;
     }
 
     /**
-     * Handles the user input.
+     * Starts the next turn. The AI makes its moves right away, the turn of a user waits for the next input.
      */
-    private void handleUserInput(boolean switchCommand) {
-        boolean pendingInput = true;
-        if (!switchCommand) {
-            if (this.autoPrint) {
-                System.out.print(hex.getBoard());
+    private void startTurn(boolean printRequest) {
+        boolean requestInput = printRequest;
+        while (running && !hex.isGameWon()) {
+            if (requestInput) {
+                if (this.autoPrint) {
+                    BoardRenderer.print(hex.getBoardView());
+                }
+                System.out.printf(INPUT_REQUEST, hex.getCurrentPlayer().getName());
+            }
+            requestInput = true;
+            if (!useAI || hex.getPlayerPointer() != 1) {
+                return;
             }
-            System.out.printf(INPUT_REQUEST, hex.getCurrentPlayer().getName());
-        }
-
-        if (useAI && hex.getPlayerPointer() == 1) {
             String aiInput = hex.getCurrentPlayer().getMove();
-            pendingInput = executeCommand(aiInput);
+            boolean pendingInput = executeCommand(aiInput);
+            if (pendingInput) {
+                return;
+            }
+            endTurn();
         }
+    }
 
-        while (pendingInput && scanner.hasNextLine()) {
-            String userInput = scanner.nextLine();
-            pendingInput = executeCommand(userInput);
+    private void endTurn() {
+        if (!running) {
+            return;
+        }
+        Player winner = hex.evaluateWinner();
+        if (winner != null) {
+            System.out.printf(WINNER_MESSAGE, winner.getName());
+            BoardRenderer.print(hex.getBoardView());
+            hex.setWinningPathToBack();
+            archiveGame();
         }
+    }
 
+    private void archiveGame() {
+        // gives error if the archive can't be written, the game goes on anyway
+        try {
+            hub.archiveGame(hex);
+        } catch (IOException e) {
+            System.err.printf(ARCHIVE_FAILED_ERROR, hex.getName());
+        }
     }
 
     @Override
@@ -143,9 +178,14 @@ public final class InputHandler extends CommandHandler {
         this.addCommand(new PrintCommand(this, hex, hub));
         this.addCommand(new SwapCommand(this, hex, hub));
         this.addCommand(new HistoryCommand(this, hex, hub));
+        this.addCommand(new HintCommand(this, hex, hub));
+        this.addCommand(new UndoCommand(this, hex, hub));
+        this.addCommand(new RedoCommand(this, hex, hub));
         this.addCommand(new ListGamesCommand(this, hex, hub));
         this.addCommand(new NewGameCommand(this, hex, hub));
         this.addCommand(new SwitchGameCommand(this, hex, hub));
+        this.addCommand(new SaveCommand(this, hex, hub));
+        this.addCommand(new LoadCommand(this, hex, hub));
     }
 
     /**
@@ -0,0 +1,135 @@
+package hex.ui;
+
+import hex.model.Board;
+import hex.model.Entry;
+import hex.model.entity.artificialplayers.Playout;
+
+import java.util.SplittableRandom;
+
+/**
+ * Entry class to measure random playouts from an empty board. It compares playouts on a {@link Board} that check
+ * for a win after every move with a {@link Playout} that fills the board up and checks for the winner once,
+ * and checks that the board agrees with every winner of the playout.
+ * It expects the side length and optionally the number of playouts, 10000 by default.
+ *
+ * @author unxgx
+ */
+public final class PlayoutBenchmark {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final String ERROR_ILLEGAL_COMMAND_ARGUMENTS = "Error: Illegal command arguments.";
+    private static final String PER_MOVE_MESSAGE = "Check after every move: %d playouts in %.3f s (%.0f/s), X won %d%n";
+    private static final String FILL_MESSAGE = "Fill, then check once: %d playouts in %.3f s (%.0f/s), X won %d%n";
+    private static final String RESULT_MESSAGE = "Speedup %.1fx, %d of %d winners agree with the board%n";
+    private static final int ARGS_MIN_COUNT = 1;
+    private static final int ARGS_MAX_COUNT = 2;
+    private static final int INDEX_ARG_SIDE_LENGTH = 0;
+    private static final int INDEX_ARG_PLAYOUTS = 1;
+    private static final int DEFAULT_PLAYOUTS = 10000;
+    private static final int SIDE_LENGTH_MIN = 1;
+    private static final int SIDE_LENGTH_MAX = 12345;
+    // a tenth of the playouts is run before measuring, so the measured code is compiled already
+    private static final int WARM_UP_DIVISOR = 10;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private PlayoutBenchmark() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Main method used as entry point.
+     *
+     * @param args the side length and optionally the number of playouts
+     */
+    public static void main(String[] args) {
+        if (args.length < ARGS_MIN_COUNT || args.length > ARGS_MAX_COUNT) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        int sideLength;
+        int playouts = DEFAULT_PLAYOUTS;
+        // gives error if the side length or the number of playouts isn't a number
+        try {
+            sideLength = Integer.parseInt(args[INDEX_ARG_SIDE_LENGTH]);
+            if (args.length == ARGS_MAX_COUNT) {
+                playouts = Integer.parseInt(args[INDEX_ARG_PLAYOUTS]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        if (sideLength < SIDE_LENGTH_MIN || sideLength > SIDE_LENGTH_MAX || playouts < 1) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        SplittableRandom random = new SplittableRandom();
+        int[] permutation = new int[sideLength * sideLength];
+        playOnBoards(sideLength, playouts / WARM_UP_DIVISOR, random, permutation);
+        long start = System.nanoTime();
+        int perMoveWinsOfX = playOnBoards(sideLength, playouts, random, permutation);
+        long perMoveNanos = System.nanoTime() - start;
+
+        Playout playout = new Playout(sideLength, random.nextLong());
+        fill(playout, playouts / WARM_UP_DIVISOR);
+        start = System.nanoTime();
+        int fillWinsOfX = fill(playout, playouts);
+        long fillNanos = System.nanoTime() - start;
+
+        int agreements = 0;
+        for (int i = 0; i < playouts; i++) {
+            playout.reset();
+            Entry winner = playout.finish(Entry.X, Playout.NO_MOVE);
+            Board board = new Board(sideLength);
+            for (int cell = 0; cell < sideLength * sideLength; cell++) {
+                board.set(cell % sideLength, cell / sideLength, playout.getEntry(cell));
+            }
+            if (board.hasWon(winner) && !board.hasWon(winner == Entry.X ? Entry.O : Entry.X)) {
+                agreements++;
+            }
+        }
+        System.out.printf(PER_MOVE_MESSAGE, playouts, perMoveNanos / NANOS_PER_SECOND,
+                playouts * NANOS_PER_SECOND / perMoveNanos, perMoveWinsOfX);
+        System.out.printf(FILL_MESSAGE, playouts, fillNanos / NANOS_PER_SECOND,
+                playouts * NANOS_PER_SECOND / fillNanos, fillWinsOfX);
+        System.out.printf(RESULT_MESSAGE, (double) perMoveNanos / fillNanos, agreements, playouts);
+    }
+
+    /**
+     * Plays random games on new boards, checking for a win after every move like a game does.
+     */
+    private static int playOnBoards(int sideLength, int playouts, SplittableRandom random, int[] permutation) {
+        int winsOfX = 0;
+        for (int i = 0; i < playouts; i++) {
+            for (int cell = 0; cell < permutation.length; cell++) {
+                int other = random.nextInt(cell + 1);
+                permutation[cell] = permutation[other];
+                permutation[other] = cell;
+            }
+            Board board = new Board(sideLength);
+            Entry token = Entry.X;
+            for (int cell : permutation) {
+                board.set(cell % sideLength, cell / sideLength, token);
+                if (board.hasWon(token)) {
+                    break;
+                }
+                token = token == Entry.X ? Entry.O : Entry.X;
+            }
+            if (token == Entry.X) {
+                winsOfX++;
+            }
+        }
+        return winsOfX;
+    }
+
+    private static int fill(Playout playout, int playouts) {
+        int winsOfX = 0;
+        for (int i = 0; i < playouts; i++) {
+            playout.reset();
+            if (playout.finish(Entry.X, Playout.NO_MOVE) == Entry.X) {
+                winsOfX++;
+            }
+        }
+        return winsOfX;
+    }
+
+}
@@ -0,0 +1,95 @@
+package hex.ui;
+
+import hex.model.GameArchive;
+import hex.model.GameRecord;
+import hex.model.InvalidGameDataException;
+import hex.model.ReplayReport;
+import hex.model.Replayer;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Entry class to replay the games of an archive without user interaction and to report how they ended.
+ * It expects the base path of the archive and optionally the number of threads, all cores by default.
+ *
+ * @author unxgx
+ */
+public final class ReplayApplication {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final String ERROR_ILLEGAL_COMMAND_ARGUMENTS = "Error: Illegal command arguments.";
+    private static final String ERROR_ARCHIVE_NOT_READ = "Error: The archive %s could not be read.%n";
+    private static final String SUMMARY_MESSAGE = "Replayed %d games with %d moves in %.3f s (%.0f games/s)%n";
+    private static final String WINS_MESSAGE = "Player one won %d, player two won %d, unfinished %d%n";
+    private static final String DAMAGED_MESSAGE = "Damaged game %d%n";
+    private static final String DISAGREEMENT_MESSAGE = "Game %d (%s): recorded %s, replayed %s after move %d of %d%n";
+    private static final String RESULT_MESSAGE = "%d damaged, %d disagreements%n";
+    private static final String[] WINNER_NAMES = {"player one", "player two"};
+    private static final String NO_WINNER_NAME = "no winner";
+    private static final int ARGS_MIN_COUNT = 1;
+    private static final int ARGS_MAX_COUNT = 2;
+    private static final int INDEX_ARG_ARCHIVE = 0;
+    private static final int INDEX_ARG_THREADS = 1;
+
+    private ReplayApplication() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Main method used as entry point.
+     *
+     * @param args the base path of the archive and optionally the number of threads
+     */
+    public static void main(String[] args) {
+        if (args.length < ARGS_MIN_COUNT || args.length > ARGS_MAX_COUNT) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length == ARGS_MAX_COUNT) {
+            // gives error if the number of threads isn't a positive number
+            try {
+                threads = Integer.parseInt(args[INDEX_ARG_THREADS]);
+            } catch (NumberFormatException e) {
+                System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+                return;
+            }
+            if (threads < 1) {
+                System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+                return;
+            }
+        }
+        String archivePath = args[INDEX_ARG_ARCHIVE];
+        ReplayReport report;
+        // gives error if the archive can't be opened or read
+        try (GameArchive archive = GameArchive.openReadOnly(Path.of(archivePath))) {
+            report = Replayer.replay(archive, threads);
+        } catch (IOException | InvalidPathException | InvalidGameDataException e) {
+            System.err.printf(ERROR_ARCHIVE_NOT_READ, archivePath);
+            return;
+        }
+        printReport(report);
+    }
+
+    private static void printReport(ReplayReport report) {
+        System.out.printf(SUMMARY_MESSAGE, report.getGames(), report.getMoves(), report.getNanos() / 1e9,
+                report.getGamesPerSecond());
+        System.out.printf(WINS_MESSAGE, report.getWins(0), report.getWins(1), report.getUnfinishedGames());
+        for (int ordinal : report.getDamagedGames()) {
+            System.out.printf(DAMAGED_MESSAGE, ordinal);
+        }
+        for (ReplayReport.Disagreement disagreement : report.getDisagreements()) {
+            System.out.printf(DISAGREEMENT_MESSAGE, disagreement.getOrdinal(), disagreement.getName(),
+                    winnerName(disagreement.getRecordedWinner()), winnerName(disagreement.getReplayedWinner()),
+                    disagreement.getTurnOfWin() + 1, disagreement.getMoveCount());
+        }
+        System.out.printf(RESULT_MESSAGE, report.getDamagedGames().size(), report.getDisagreements().size());
+    }
+
+    private static String winnerName(int winner) {
+        return winner == GameRecord.NO_WINNER ? NO_WINNER_NAME : WINNER_NAMES[winner];
+    }
+
+}
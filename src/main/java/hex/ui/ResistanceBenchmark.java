@@ -0,0 +1,111 @@
+package hex.ui;
+
+import hex.model.Entry;
+import hex.model.ResistanceEvaluator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Entry class to measure how fast the {@link ResistanceEvaluator} rates every move of random positions, each reached
+ * from the one before by a few moves, like the positions of a game. It expects the side length and optionally the
+ * number of positions, 200 by default.
+ *
+ * @author unxgx
+ */
+public final class ResistanceBenchmark {
+
+    private static final String ERROR_UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    private static final String ERROR_ILLEGAL_COMMAND_ARGUMENTS = "Error: Illegal command arguments.";
+    private static final String RESULT_MESSAGE = "Rated every move of %d positions in %.3f s (%.2f ms per position)%n";
+    private static final int ARGS_MIN_COUNT = 1;
+    private static final int ARGS_MAX_COUNT = 2;
+    private static final int INDEX_ARG_SIDE_LENGTH = 0;
+    private static final int INDEX_ARG_POSITIONS = 1;
+    private static final int DEFAULT_POSITIONS = 200;
+    private static final int SIDE_LENGTH_MIN = 1;
+    private static final int SIDE_LENGTH_MAX = 99;
+    // a game is started again once a third of the board is filled
+    private static final int FILL_DIVISOR = 3;
+    private static final int MAX_MOVES_BETWEEN_POSITIONS = 4;
+    // the positions are rated once before measuring, so the measured code is compiled already
+    private static final int WARM_UP_ROUNDS = 1;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private ResistanceBenchmark() {
+        throw new IllegalStateException(ERROR_UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Main method used as entry point.
+     *
+     * @param args the side length and optionally the number of positions
+     */
+    public static void main(String[] args) {
+        if (args.length < ARGS_MIN_COUNT || args.length > ARGS_MAX_COUNT) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        int sideLength;
+        int positions = DEFAULT_POSITIONS;
+        // gives error if the side length or the number of positions isn't a number
+        try {
+            sideLength = Integer.parseInt(args[INDEX_ARG_SIDE_LENGTH]);
+            if (args.length == ARGS_MAX_COUNT) {
+                positions = Integer.parseInt(args[INDEX_ARG_POSITIONS]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        if (sideLength < SIDE_LENGTH_MIN || sideLength > SIDE_LENGTH_MAX || positions < 1) {
+            System.err.println(ERROR_ILLEGAL_COMMAND_ARGUMENTS);
+            return;
+        }
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            rate(sideLength, positions);
+        }
+        long nanos = rate(sideLength, positions);
+        System.out.printf(RESULT_MESSAGE, positions, nanos / NANOS_PER_SECOND, nanos / NANOS_PER_MILLI / positions);
+    }
+
+    /**
+     * Plays random games and rates every move of a position after every few moves.
+     *
+     * @return the nanoseconds spent rating
+     */
+    private static long rate(int sideLength, int positions) {
+        SplittableRandom random = new SplittableRandom(sideLength);
+        int cellCount = sideLength * sideLength;
+        ResistanceEvaluator evaluator = new ResistanceEvaluator(sideLength);
+        Entry[] cells = new Entry[cellCount];
+        double[] scores = new double[cellCount];
+        int moves = cellCount;
+        Entry token = Entry.X;
+        long nanos = 0;
+        for (int i = 0; i < positions; i++) {
+            if (moves >= cellCount / FILL_DIVISOR) {
+                for (int cell = 0; cell < cellCount; cell++) {
+                    cells[cell] = Entry.EMPTY;
+                    evaluator.set(cell, Entry.EMPTY);
+                }
+                moves = 0;
+                token = Entry.X;
+            }
+            for (int move = random.nextInt(MAX_MOVES_BETWEEN_POSITIONS) + 1; move > 0; move--) {
+                int cell = random.nextInt(cellCount);
+                if (cells[cell] == Entry.EMPTY) {
+                    cells[cell] = token;
+                    evaluator.set(cell, token);
+                    moves++;
+                    token = token == Entry.X ? Entry.O : Entry.X;
+                }
+            }
+            long start = System.nanoTime();
+            evaluator.scoreMoves(token, scores);
+            nanos += System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+}
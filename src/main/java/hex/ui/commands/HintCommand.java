@@ -0,0 +1,67 @@
+package hex.ui.commands;
+
+import hex.model.BoardView;
+import hex.model.Entry;
+import hex.model.Hex;
+import hex.model.Hub;
+import hex.model.ResistanceEvaluator;
+import hex.model.Threats;
+import hex.ui.HexCommand;
+import hex.ui.InputHandler;
+
+/**
+ * command to suggest a move to the current player. A move that wins at once is suggested first, then a move that
+ * keeps the opponent from winning at once, and otherwise the move rated best by the resistances of both players.
+ * The resistances favour the obtuse corners of an empty board, so the centre is suggested there instead.
+ *
+ * @author unxgx
+ */
+public final class HintCommand extends HexCommand {
+
+    private static final String COMMAND_NAME = "hint";
+    private static final String COMMAND_DESCRIPTION = "Suggests a move to the current player";
+    private static final String BOARD_TOO_LARGE_MESSAGE = createError("Hints are available on boards up to a side length of %d.%n");
+    private static final String HINT_TEMPLATE = "%s could place at %d %d%n";
+    private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 0;
+    private static final int NO_INDEX = -1;
+    // rating every move of larger boards would take too long
+    private static final int MAX_SIDE_LENGTH = 25;
+
+    /**
+     * instantiates a hint command.
+     *
+     * @param inputHandler input handler to use
+     * @param hex          hex game to use
+     * @param hub          hub to use
+     */
+    public HintCommand(InputHandler inputHandler, Hex hex, Hub hub) {
+        super(COMMAND_NAME, inputHandler, hex, EXPECTED_NUMBER_OF_ARGUMENTS, COMMAND_DESCRIPTION, hub);
+    }
+
+    @Override
+    protected boolean executeHexCommand(String[] commandArguments) {
+        BoardView board = hex.getBoardView();
+        int sideLength = board.getSideLength();
+        // gives error if the board is too large to rate every move
+        if (sideLength > MAX_SIDE_LENGTH) {
+            System.err.printf(BOARD_TOO_LARGE_MESSAGE, MAX_SIDE_LENGTH);
+            return false;
+        }
+        Entry token = hex.getCurrentPlayer().getToken();
+        Threats threats = board.getThreats();
+        int index = threats.getFirst(token);
+        if (index == NO_INDEX) {
+            index = threats.getFirst(token == Entry.X ? Entry.O : Entry.X);
+        }
+        if (index == NO_INDEX && !board.containsAny(Entry.X) && !board.containsAny(Entry.O)) {
+            index = sideLength / 2 * sideLength + sideLength / 2;
+        }
+        if (index == NO_INDEX) {
+            ResistanceEvaluator evaluator = new ResistanceEvaluator(sideLength);
+            evaluator.load(board);
+            index = evaluator.getBestMove(token);
+        }
+        System.out.printf(HINT_TEMPLATE, hex.getCurrentPlayer().getName(), index % sideLength, index / sideLength);
+        return true;
+    }
+}
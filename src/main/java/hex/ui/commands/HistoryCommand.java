@@ -2,6 +2,7 @@ package hex.ui.commands;
 
 import hex.model.Hex;
 import hex.model.Hub;
+import hex.model.MoveLog;
 import hex.ui.HexCommand;
 import hex.ui.InputHandler;
 
@@ -18,6 +19,7 @@ public final class HistoryCommand extends HexCommand {
     private static final String INVALID_TURN_ARGUMENT_MESSAGE = createError("Invalid turn argument. Expected a integer.");
     private static final String INVALID_TURN_NUMBER_MESSAGE = createError("Invalid turn number. Expected a value between 1 and %d.%n");
     private static final String NONEXISTENT_HISTORY_ERROR = createError("There is no history to show yet.");
+    private static final String HISTORY_TEMPLATE = "%s: %d %d%n";
     private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 1;
     private static final int PAST_TURNS_INDEX = 0;
 
@@ -68,8 +70,9 @@ public final class HistoryCommand extends HexCommand {
             return false;
         }
 
+        MoveLog moves = hex.getMoves();
         for (int i = currentTurn - 1; i >= currentTurn - pastTurns; i--) {
-            System.out.println(hex.getHistory().get(i));
+            System.out.printf(HISTORY_TEMPLATE, hex.getPlayer(moves.getPlayer(i)).getName(), moves.getX(i), moves.getY(i));
         }
         return true;
     }
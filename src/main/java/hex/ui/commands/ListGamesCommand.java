@@ -2,13 +2,10 @@ package hex.ui.commands;
 
 import hex.model.Hex;
 import hex.model.Hub;
+import hex.model.Session;
 import hex.ui.HexCommand;
 import hex.ui.InputHandler;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Map.Entry;
-
 /**
  * command to list all games.
  *
@@ -35,25 +32,10 @@ public final class ListGamesCommand extends HexCommand {
 
     @Override
     protected boolean executeHexCommand(String[] commandArguments) {
-        Map<String, Hex> gamesWithName = hub.getGamesWithName();
-        Map<String, Integer> currentTurnMap = new LinkedHashMap<>();
-        // maps games to their current turn
-        for (Entry<String, Hex> entry : gamesWithName.entrySet()) {
-            String gameName = entry.getKey();
-            Hex hexGame = entry.getValue();
-
-            int currentTurn = hexGame.getCurrentTurn();
-
-            currentTurnMap.put(gameName, currentTurn);
-        }
-        // prints the games and their current turns that are not won
-        for (Entry<String, Integer> entry : currentTurnMap.entrySet()) {
-            String gameName = entry.getKey();
-            int currentTurn = entry.getValue();
-
-            Hex gameToShow = gamesWithName.get(gameName);
-            if (!gameToShow.isGameWon()) {
-                String formattedOutput = String.format(SUCCESS_MESSAGE, gameName, currentTurn);
+        // prints the games and their current turns that are not won, without loading spilled games
+        for (Session session : hub.getSessions().getSessions()) {
+            if (!session.isGameWon()) {
+                String formattedOutput = String.format(SUCCESS_MESSAGE, session.getName(), session.getCurrentTurn());
                 System.out.print(formattedOutput);
             }
         }
@@ -0,0 +1,70 @@
+package hex.ui.commands;
+
+import hex.model.GameCodec;
+import hex.model.GameRecord;
+import hex.model.Hex;
+import hex.model.Hub;
+import hex.model.InvalidGameDataException;
+import hex.ui.HexCommand;
+import hex.ui.InputHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * command to load a saved game from a file as a new game and continue it.
+ *
+ * @author unxgx
+ */
+public final class LoadCommand extends HexCommand {
+
+    private static final String COMMAND_NAME = "load";
+    private static final String COMMAND_DESCRIPTION = "Loads a saved game from the specified file as a new game with the specified name";
+    private static final String ALREADY_EXISTING_NAME_ERROR = createError("The name %s is already used for an another game%n");
+    private static final String READ_FAILED_ERROR = createError("The file %s could not be read%n");
+    private static final String INVALID_GAME_ERROR = createError("The file %s does not contain a valid game%n");
+    private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 2;
+    private static final int NEW_GAME_NAME_INDEX = 0;
+    private static final int FILE_INDEX = 1;
+
+    /**
+     * Instantiates a load command.
+     *
+     * @param inputHandler The input handler to use
+     * @param hex          The hex game to use
+     * @param hub          The hub to use
+     */
+    public LoadCommand(InputHandler inputHandler, Hex hex, Hub hub) {
+        super(COMMAND_NAME, inputHandler, hex, EXPECTED_NUMBER_OF_ARGUMENTS, COMMAND_DESCRIPTION, hub);
+    }
+
+    @Override
+    protected boolean executeHexCommand(String[] commandArguments) {
+        String newGameName = commandArguments[NEW_GAME_NAME_INDEX];
+        String file = commandArguments[FILE_INDEX];
+        // gives error if the name is already used for an another game
+        if (hub.getSessions().get(newGameName) != null) {
+            System.err.printf(ALREADY_EXISTING_NAME_ERROR, newGameName);
+            return false;
+        }
+        GameRecord record;
+        // gives error if the file can't be read or holds no valid game
+        try {
+            record = GameCodec.decode(Files.readAllBytes(Path.of(file)));
+        } catch (IOException | InvalidPathException e) {
+            System.err.printf(READ_FAILED_ERROR, file);
+            return false;
+        } catch (InvalidGameDataException e) {
+            System.err.printf(INVALID_GAME_ERROR, file);
+            return false;
+        }
+
+        Hex loadedGame = hub.loadGame(newGameName, record);
+        hub.closeGame(hub.getCurrentGame());
+        hub.startGame(loadedGame);
+
+        return true;
+    }
+}
@@ -5,8 +5,6 @@ import hex.model.Hub;
 import hex.ui.HexCommand;
 import hex.ui.InputHandler;
 
-import java.util.Map;
-
 /**
  * command to start a new game.
  *
@@ -35,15 +33,14 @@ public final class NewGameCommand extends HexCommand {
     @Override
     protected boolean executeHexCommand(String[] commandArguments) {
         String newGameName = commandArguments[NEW_GAME_NAME_INDEX];
-        Map<String, Hex> gamesWithName = hub.getGamesWithName();
         // gives error if the name is already used for an another game
-        if (gamesWithName.containsKey(newGameName)) {
+        if (hub.getSessions().get(newGameName) != null) {
             System.err.printf(ALREADY_EXISTING_NAME_ERROR, newGameName);
             return false;
         }
 
-        hub.closeGame(hub.getCurrentGame());
         Hex newGame = hub.createGame(newGameName);
+        hub.closeGame(hub.getCurrentGame());
         hub.startGame(newGame);
 
         return true;
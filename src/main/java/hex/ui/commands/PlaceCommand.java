@@ -45,13 +45,14 @@ public final class PlaceCommand extends HexCommand {
             System.err.println(INVALID_COORDINATE_MESSAGE);
             return false;
         }
+        int sideLength = hex.getBoardView().getSideLength();
         // gives error if the coordinates are out of bounds
-        if (xCoordinate < 0 || xCoordinate >= hex.getBoard().getSideLength()) {
-            System.err.printf(INVALID_X_COORDINATE_MESSAGE, xCoordinate, hex.getBoard().getSideLength() - 1);
+        if (xCoordinate < 0 || xCoordinate >= sideLength) {
+            System.err.printf(INVALID_X_COORDINATE_MESSAGE, xCoordinate, sideLength - 1);
             return false;
         }
-        if (yCoordinate < 0 || yCoordinate >= hex.getBoard().getSideLength()) {
-            System.err.printf(INVALID_Y_COORDINATE_MESSAGE, yCoordinate, hex.getBoard().getSideLength() - 1);
+        if (yCoordinate < 0 || yCoordinate >= sideLength) {
+            System.err.printf(INVALID_Y_COORDINATE_MESSAGE, yCoordinate, sideLength - 1);
             return false;
         }
 
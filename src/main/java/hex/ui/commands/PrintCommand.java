@@ -1,20 +1,35 @@
 package hex.ui.commands;
 
+import hex.model.BoardView;
 import hex.model.Hex;
 import hex.model.Hub;
+import hex.ui.BoardRenderer;
 import hex.ui.HexCommand;
 import hex.ui.InputHandler;
 
 /**
- * command to print the board.
+ * command to print the board, a region of it or a downsampled overview of it.
  *
  * @author unxgx
  * @author Programmieren-Team
  */
 public final class PrintCommand extends HexCommand {
     private static final String COMMAND_NAME = "print";
-    private static final String COMMAND_DESCRIPTION = "Prints the current board";
+    private static final String COMMAND_DESCRIPTION = "Prints the current board, a region with print <x> <y> <radius> or an overview with print overview <tile size>";
+    private static final String OVERVIEW_KEYWORD = "overview";
+    private static final String INVALID_ARGUMENTS_MESSAGE = createError("Invalid arguments. Expected print, print <x> <y> <radius> or print overview <tile size>.");
+    private static final String INVALID_X_COORDINATE_MESSAGE = createError("Invalid x coordinate %d. Expected a value between 0 and %d.%n");
+    private static final String INVALID_Y_COORDINATE_MESSAGE = createError("Invalid y coordinate %d. Expected a value between 0 and %d.%n");
+    private static final String INVALID_RADIUS_MESSAGE = createError("Invalid radius %d. Expected a non-negative value.%n");
+    private static final String INVALID_TILE_SIZE_MESSAGE = createError("Invalid tile size %d. Expected a positive value.%n");
     private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 0;
+    private static final int OVERVIEW_NUMBER_OF_ARGUMENTS = 2;
+    private static final int VIEWPORT_NUMBER_OF_ARGUMENTS = 3;
+    private static final int KEYWORD_INDEX = 0;
+    private static final int TILE_SIZE_INDEX = 1;
+    private static final int X_COORDINATE_INDEX = 0;
+    private static final int Y_COORDINATE_INDEX = 1;
+    private static final int RADIUS_INDEX = 2;
 
     /**
      * instantiates a print command.
@@ -27,9 +42,80 @@ public final class PrintCommand extends HexCommand {
         super(COMMAND_NAME, inputHandler, hex, EXPECTED_NUMBER_OF_ARGUMENTS, COMMAND_DESCRIPTION, hub);
     }
 
+    @Override
+    public boolean execute(String[] commandArguments) {
+        if (commandArguments.length != EXPECTED_NUMBER_OF_ARGUMENTS
+                && commandArguments.length != OVERVIEW_NUMBER_OF_ARGUMENTS
+                && commandArguments.length != VIEWPORT_NUMBER_OF_ARGUMENTS) {
+            System.err.printf(EXPECTED_INNER_ARGUMENTS_ERROR_FORMAT, EXPECTED_NUMBER_OF_ARGUMENTS, commandArguments.length);
+            return false;
+        }
+        return executeHexCommand(commandArguments);
+    }
+
     @Override
     protected boolean executeHexCommand(String[] commandArguments) {
-        System.out.print(hex.getBoard());
+        BoardView board = hex.getBoardView();
+        if (commandArguments.length == EXPECTED_NUMBER_OF_ARGUMENTS) {
+            BoardRenderer.print(board);
+            return true;
+        }
+        if (commandArguments.length == OVERVIEW_NUMBER_OF_ARGUMENTS) {
+            return printOverview(board, commandArguments);
+        }
+        return printViewport(board, commandArguments);
+    }
+
+    private boolean printOverview(BoardView board, String[] commandArguments) {
+        // gives error if the arguments aren't the keyword and a number
+        if (!OVERVIEW_KEYWORD.equals(commandArguments[KEYWORD_INDEX])) {
+            System.err.println(INVALID_ARGUMENTS_MESSAGE);
+            return false;
+        }
+        int tileSize;
+        try {
+            tileSize = Integer.parseInt(commandArguments[TILE_SIZE_INDEX]);
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_ARGUMENTS_MESSAGE);
+            return false;
+        }
+        // gives error if the tiles are empty
+        if (tileSize < 1) {
+            System.err.printf(INVALID_TILE_SIZE_MESSAGE, tileSize);
+            return false;
+        }
+        BoardRenderer.printOverview(board, tileSize);
+        return true;
+    }
+
+    private boolean printViewport(BoardView board, String[] commandArguments) {
+        int xCoordinate;
+        int yCoordinate;
+        int radius;
+        // gives error if the arguments aren't a number
+        try {
+            xCoordinate = Integer.parseInt(commandArguments[X_COORDINATE_INDEX]);
+            yCoordinate = Integer.parseInt(commandArguments[Y_COORDINATE_INDEX]);
+            radius = Integer.parseInt(commandArguments[RADIUS_INDEX]);
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_ARGUMENTS_MESSAGE);
+            return false;
+        }
+        int sideLength = board.getSideLength();
+        // gives error if the center is out of bounds or the radius is negative
+        if (xCoordinate < 0 || xCoordinate >= sideLength) {
+            System.err.printf(INVALID_X_COORDINATE_MESSAGE, xCoordinate, sideLength - 1);
+            return false;
+        }
+        if (yCoordinate < 0 || yCoordinate >= sideLength) {
+            System.err.printf(INVALID_Y_COORDINATE_MESSAGE, yCoordinate, sideLength - 1);
+            return false;
+        }
+        if (radius < 0) {
+            System.err.printf(INVALID_RADIUS_MESSAGE, radius);
+            return false;
+        }
+        BoardRenderer.printViewport(board, xCoordinate, yCoordinate, radius);
         return true;
     }
 }
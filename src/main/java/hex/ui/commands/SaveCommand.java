@@ -0,0 +1,52 @@
+package hex.ui.commands;
+
+import hex.model.GameCodec;
+import hex.model.Hex;
+import hex.model.Hub;
+import hex.ui.HexCommand;
+import hex.ui.InputHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * command to save the current game into a file.
+ *
+ * @author unxgx
+ */
+public final class SaveCommand extends HexCommand {
+
+    private static final String COMMAND_NAME = "save";
+    private static final String COMMAND_DESCRIPTION = "Saves the current game into the specified file";
+    private static final String SAVE_FAILED_ERROR = createError("The game could not be saved to %s%n");
+    private static final String SUCCESS_MESSAGE = "Saved %s to %s%n";
+    private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 1;
+    private static final int FILE_INDEX = 0;
+
+    /**
+     * Instantiates a save command.
+     *
+     * @param inputHandler The input handler to use
+     * @param hex          The hex game to use
+     * @param hub          The hub to use
+     */
+    public SaveCommand(InputHandler inputHandler, Hex hex, Hub hub) {
+        super(COMMAND_NAME, inputHandler, hex, EXPECTED_NUMBER_OF_ARGUMENTS, COMMAND_DESCRIPTION, hub);
+    }
+
+    @Override
+    protected boolean executeHexCommand(String[] commandArguments) {
+        String file = commandArguments[FILE_INDEX];
+        // gives error if the file can't be written
+        try {
+            Files.write(Path.of(file), GameCodec.encode(hex));
+        } catch (IOException | InvalidPathException e) {
+            System.err.printf(SAVE_FAILED_ERROR, file);
+            return false;
+        }
+        System.out.printf(SUCCESS_MESSAGE, hex.getName(), file);
+        return true;
+    }
+}
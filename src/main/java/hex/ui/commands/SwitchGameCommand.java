@@ -5,8 +5,6 @@ import hex.model.Hub;
 import hex.ui.HexCommand;
 import hex.ui.InputHandler;
 
-import java.util.Map;
-
 /**
  * command to switch the current game to another game.
  *
@@ -37,9 +35,8 @@ public final class SwitchGameCommand extends HexCommand {
     @Override
     protected boolean executeHexCommand(String[] commandArguments) {
         String newGameName = commandArguments[NEW_GAME_NAME_INDEX];
-        Map<String, Hex> gamesWithName = hub.getGamesWithName();
         // gives error if the game does not exist
-        if (!gamesWithName.containsKey(newGameName)) {
+        if (hub.getSessions().get(newGameName) == null) {
             System.err.printf(NON_EXISTENT_GAME_ERROR, newGameName);
             return false;
         }
@@ -0,0 +1,75 @@
+package hex.ui.commands;
+
+import hex.model.Hex;
+import hex.model.Hub;
+import hex.ui.HexCommand;
+import hex.ui.InputHandler;
+
+/**
+ * command to undo the last step(s).
+ *
+ * @author unxgx
+ */
+public final class UndoCommand extends HexCommand {
+
+    private static final String COMMAND_NAME = "undo";
+    private static final String COMMAND_DESCRIPTION = "Takes back the last move(s) or the swap";
+    private static final String INVALID_STEPS_ARGUMENT_MESSAGE = createError("Invalid number of steps. Expected a integer.");
+    private static final String INVALID_STEPS_NUMBER_MESSAGE = createError("Invalid number of steps. Expected a value between 1 and %d.%n");
+    private static final String NOTHING_TO_UNDO_ERROR = createError("There is nothing to undo.");
+    private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 1;
+    private static final int STEPS_INDEX = 0;
+
+    /**
+     * instantiates a undo command.
+     *
+     * @param inputHandler input handler to use
+     * @param hex          hex game to use
+     * @param hub          hub to use
+     */
+    public UndoCommand(InputHandler inputHandler, Hex hex, Hub hub) {
+        super(COMMAND_NAME, inputHandler, hex, EXPECTED_NUMBER_OF_ARGUMENTS, COMMAND_DESCRIPTION, hub);
+    }
+
+    @Override
+    public boolean execute(String[] commandArguments) {
+        if (commandArguments.length > EXPECTED_NUMBER_OF_ARGUMENTS) {
+            System.err.printf(EXPECTED_INNER_ARGUMENTS_ERROR_FORMAT, EXPECTED_NUMBER_OF_ARGUMENTS, commandArguments.length);
+            return false;
+        }
+        return executeHexCommand(commandArguments);
+    }
+
+    @Override
+    protected boolean executeHexCommand(String[] commandArguments) {
+        int steps;
+
+        if (commandArguments.length == 0) {
+            steps = 1;
+        } else {
+            // gives error if the argument isn't a number
+            try {
+                steps = Integer.parseInt(commandArguments[STEPS_INDEX]);
+            } catch (NumberFormatException e) {
+                System.err.println(INVALID_STEPS_ARGUMENT_MESSAGE);
+                return false;
+            }
+        }
+        int availableSteps = hex.getUndoableSteps();
+        // gives error if there is nothing to undo
+        if (availableSteps == 0) {
+            System.err.println(NOTHING_TO_UNDO_ERROR);
+            return false;
+        }
+        // gives error if the number of steps is out of bounds
+        if (steps < 1 || steps > availableSteps) {
+            System.err.printf(INVALID_STEPS_NUMBER_MESSAGE, availableSteps);
+            return false;
+        }
+
+        for (int i = 0; i < steps; i++) {
+            hex.undo();
+        }
+        return true;
+    }
+}